@@ -71,7 +71,7 @@ public class CRMAppLoginObject extends MobileTestBase {
 
         try {
             System.out.println("Waiting for app to load completely...");
-            commonUtils.sleep(5000);
+            commonUtils.waitForFlutterStability(5000);
 
             System.out.println("Waiting for login elements to be available...");
             wait.until(ExpectedConditions.visibilityOf(appLogin_username));
@@ -81,13 +81,13 @@ public class CRMAppLoginObject extends MobileTestBase {
             appLogin_username.click();
             appLogin_username.clear();
             appLogin_username.sendKeys(uid);
-            commonUtils.sleep(1000);
+            commonUtils.waitForFlutterStability(1000);
 
             wait.until(ExpectedConditions.elementToBeClickable(appLlogin_password));
             appLlogin_password.click();
             appLlogin_password.clear();
             appLlogin_password.sendKeys(pass);
-            commonUtils.sleep(1000);
+            commonUtils.waitForFlutterStability(1000);
 
             //  Wait for login button
             if (!appLogIn.isDisplayed()) {
@@ -96,7 +96,7 @@ public class CRMAppLoginObject extends MobileTestBase {
             }
 
             appLogIn.click();
-            commonUtils.sleep(1000);
+            commonUtils.waitForFlutterStability(1000);
 
             //  Wait for sync data to appear
             wait.until(ExpectedConditions.visibilityOf(syncingData));
@@ -136,14 +136,14 @@ public class CRMAppLoginObject extends MobileTestBase {
 
         wait.until(ExpectedConditions.elementToBeClickable(landingPageHeader));
         Assert.assertTrue(landingPageHeader.isDisplayed());
-        commonUtils.sleep(1000);
+        commonUtils.waitForFlutterStability(1000);
 
         hamburgerMenuIcon.click();
 
         WebElement firstNameUser = driver.findElement(By.xpath("//android.view.View[@content-desc='Hi, " + firstNameEle + "!']"));
         wait.until(ExpectedConditions.elementToBeClickable(firstNameUser));
         Assert.assertTrue(firstNameUser.isDisplayed());
-        commonUtils.sleep(1000);
+        commonUtils.waitForFlutterStability(1000);
         System.out.println("landing page verification passed");
 
     }
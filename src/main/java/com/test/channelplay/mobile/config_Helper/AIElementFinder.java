@@ -6,31 +6,68 @@ import org.opencv.imgcodecs.Imgcodecs;
 import org.opencv.imgproc.Imgproc;
 import org.opencv.core.Mat;
 import org.openqa.selenium.Dimension;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.interactions.PointerInput;
 import org.openqa.selenium.interactions.Sequence;
+import com.test.channelplay.mobile.config_Helper.TemplateMatchEngine.MatchResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import net.sourceforge.tess4j.Tesseract;
 import net.sourceforge.tess4j.Word;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
 import java.awt.Rectangle;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class AIElementFinder {
 
     private static final Logger log = LoggerFactory.getLogger(AIElementFinder.class);
     private final AppiumDriver driver;
-    private final Tesseract tesseract;
     private static String currentScenario = "unknown";
 
+    // Shared by all finders for parallel OCR strategy racing (daemon threads, never blocks JVM exit)
+    private static final ExecutorService OCR_STRATEGY_EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(2, Math.min(3, Runtime.getRuntime().availableProcessors())), runnable -> {
+                Thread thread = new Thread(runnable, "ocr-strategy");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    // Metadata parsed from the template store, once per template per run (only capture geometry and position are read)
+    private static final Map<String, TemplateMetadata> STORED_METADATA = new ConcurrentHashMap<>();
+
+    // Shared by all finders for trying one template at several scales (separate from the batch pool, which submits here)
+    private static final ExecutorService TEMPLATE_SCALE_EXECUTOR = Executors.newFixedThreadPool(
+            TemplateConfig.getScaleMatchSteps().length + 1, runnable -> {
+                Thread thread = new Thread(runnable, "template-scale");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    // Shared by all finders for scoring several templates against one preprocessed screen
+    private static final ExecutorService TEMPLATE_BATCH_EXECUTOR = Executors.newFixedThreadPool(
+            TemplateConfig.getBatchMatchThreads(), runnable -> {
+                Thread thread = new Thread(runnable, "template-batch");
+                thread.setDaemon(true);
+                return thread;
+            });
+
     static {
         // Load OpenCV native library
         nu.pattern.OpenCV.loadShared();
@@ -56,15 +93,7 @@ public class AIElementFinder {
 
     public AIElementFinder(AppiumDriver driver) {
         this.driver = driver;
-        this.tesseract = new Tesseract();
-
-        // Configure Tesseract (adjust path as needed)
-        try {
-            tesseract.setDatapath("C:\\Program Files\\Tesseract-OCR\\tessdata");
-            tesseract.setLanguage("eng");
-        } catch (Exception e) {
-            log.warn("Tesseract not configured properly. OCR features will not work: " + e.getMessage());
-        }
+        // OCR engines come from the shared TesseractPool (tessdata path and language are configured there)
     }
     
     /**
@@ -78,89 +107,46 @@ public class AIElementFinder {
         double bestConfidence = 0.0;
         MatchResult bestResult = null;
 
-        try {
-            // Take screenshot
-            byte[] screenshotBytes = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
-            BufferedImage screenshot = ImageIO.read(new ByteArrayInputStream(screenshotBytes));
-
-            // Convert to OpenCV Mat
-            Mat screenMat = bufferedImageToMat(screenshot);
-            Mat templateMat = Imgcodecs.imread(templateImagePath);
-
-            if (templateMat.empty()) {
-                throw new RuntimeException("Template image not found: " + templateImagePath);
-            }
+        // Every Mat allocated for this lookup is released when the arena closes
+        try (MatArena arena = MatArena.open("findElementByImage")) {
+            // Take screenshot and decode the PNG bytes straight into an OpenCV Mat
+            byte[] screenshotBytes = ScreenshotProvider.forDriver(driver).getScreenshotBytes();
+            Mat screenMat = arena.track(decodeScreenshot(screenshotBytes));
 
             // Preprocess images: Convert to grayscale and apply Gaussian blur to reduce noise
             log.debug("Preprocessing images: Converting to grayscale and applying Gaussian blur");
-            Mat screenProcessed = preprocessImage(screenMat);
-            Mat templateProcessed = preprocessImage(templateMat);
-
-            // Strategy 1: Normalized Correlation Coefficient (best for general purpose)
-            log.info("Trying OpenCV Strategy 1: TM_CCOEFF_NORMED for template '{}'", templateImagePath);
-            MatchResult result = tryTemplateMatchingWithConfidence(screenProcessed, templateProcessed, Imgproc.TM_CCOEFF_NORMED, threshold, false);
-            if (result.point != null) {
-                log.info("SUCCESS: Template matched via OpenCV Strategy 1 (TM_CCOEFF_NORMED) at ({}, {})", result.point.x, result.point.y);
-
-                // Save debug image with rectangle (Phase 1)
-                saveDebugImage(screenProcessed, templateProcessed, result.matchLocation, templateImagePath, result.confidence, "TM_CCOEFF_NORMED");
-
-                long matchTime = System.currentTimeMillis() - startTime;
-                TemplateUsageTracker.recordOpenCVSuccess(templateImagePath, result.confidence, matchTime);
-                return result.point;
-            }
-            // Track best result for failure debug (Phase 3)
-            if (result.confidence > bestConfidence) {
-                bestConfidence = result.confidence;
-                bestResult = result;
-            }
-            log.info("OpenCV Strategy 1 failed, trying next strategy");
-
-            // Strategy 2: Normalized Cross-Correlation (better for brightness variations)
-            log.info("Trying OpenCV Strategy 2: TM_CCORR_NORMED for template '{}'", templateImagePath);
-            result = tryTemplateMatchingWithConfidence(screenProcessed, templateProcessed, Imgproc.TM_CCORR_NORMED, threshold * 0.9, false);
-            if (result.point != null) {
-                log.info("SUCCESS: Template matched via OpenCV Strategy 2 (TM_CCORR_NORMED) at ({}, {})", result.point.x, result.point.y);
+            Mat screenProcessed = arena.track(preprocessImage(screenMat));
+            Mat templateProcessed = arena.track(loadTemplateProcessed(templateImagePath));
 
-                // Save debug image with rectangle (Phase 1)
-                saveDebugImage(screenProcessed, templateProcessed, result.matchLocation, templateImagePath, result.confidence, "TM_CCORR_NORMED");
+            List<MatchResult> results = matchTemplateAnyScale(screenProcessed, templateProcessed, threshold, templateImagePath);
 
-                long matchTime = System.currentTimeMillis() - startTime;
-                TemplateUsageTracker.recordOpenCVSuccess(templateImagePath, result.confidence, matchTime);
-                return result.point;
-            }
-            // Track best result for failure debug (Phase 3)
-            if (result.confidence > bestConfidence) {
-                bestConfidence = result.confidence;
-                bestResult = result;
-            }
-            log.info("OpenCV Strategy 2 failed, trying next strategy");
+            for (int i = 0; i < results.size(); i++) {
+                MatchResult result = results.get(i);
+                String methodName = result.strategy.methodName;
 
-            // Strategy 3: Normalized Squared Difference (better for exact pixel matching)
-            log.info("Trying OpenCV Strategy 3: TM_SQDIFF_NORMED for template '{}'", templateImagePath);
-            result = tryTemplateMatchingWithConfidence(screenProcessed, templateProcessed, Imgproc.TM_SQDIFF_NORMED, 0.2, true);
-            if (result.point != null) {
-                log.info("SUCCESS: Template matched via OpenCV Strategy 3 (TM_SQDIFF_NORMED) at ({}, {})", result.point.x, result.point.y);
+                if (result.point != null) {
+                    log.info("SUCCESS: Template matched via OpenCV Strategy {} ({}) at ({}, {})", i + 1, methodName, result.point.x, result.point.y);
 
-                // Save debug image with rectangle (Phase 1)
-                saveDebugImage(screenProcessed, templateProcessed, result.matchLocation, templateImagePath, result.confidence, "TM_SQDIFF_NORMED");
+                    // Save debug image with rectangle (Phase 1)
+                    saveDebugImage(screenProcessed, scaledSize(templateProcessed, result), result.matchLocation, templateImagePath, result.confidence, methodName);
 
-                long matchTime = System.currentTimeMillis() - startTime;
-                TemplateUsageTracker.recordOpenCVSuccess(templateImagePath, result.confidence, matchTime);
-                return result.point;
-            }
-            // Track best result for failure debug (Phase 3)
-            if (result.confidence > bestConfidence) {
-                bestConfidence = result.confidence;
-                bestResult = result;
+                    long matchTime = System.currentTimeMillis() - startTime;
+                    TemplateUsageTracker.recordOpenCVSuccess(templateImagePath, result.confidence, matchTime);
+                    return result.point;
+                }
+                // Track best result for failure debug (Phase 3)
+                if (result.confidence > bestConfidence) {
+                    bestConfidence = result.confidence;
+                    bestResult = result;
+                }
+                log.info("OpenCV Strategy {} ({}) failed", i + 1, methodName);
             }
-            log.info("OpenCV Strategy 3 failed");
 
             log.warn("Template '{}' not found via any OpenCV strategy (best confidence: {})", templateImagePath, bestConfidence);
 
             // Save debug image for failure with best attempt (Phase 3)
             if (bestResult != null && bestResult.matchLocation != null) {
-                saveDebugFailure(screenProcessed, templateProcessed, bestResult.matchLocation, templateImagePath, bestConfidence);
+                saveDebugFailure(screenProcessed, scaledSize(templateProcessed, bestResult), bestResult.matchLocation, templateImagePath, bestConfidence);
             }
 
             // Record failure
@@ -178,44 +164,164 @@ public class AIElementFinder {
     }
 
     /**
-     * Helper method to try a specific template matching algorithm (returns confidence)
+     * Match one template allowing for a different device resolution or density than at capture time
+     * On a device with the capture geometry only the native 1:1 scale runs (no extra cost, hit or miss).
+     * Otherwise the native scale runs first when it is the most likely candidate; the other candidate
+     * scales run in parallel and the first one that matches wins
      */
-    private MatchResult tryTemplateMatchingWithConfidence(Mat screenMat, Mat templateMat, int method, double threshold, boolean inverseResult) {
-        try {
-            Mat result = new Mat();
-            Imgproc.matchTemplate(screenMat, templateMat, result, method);
+    private List<MatchResult> matchTemplateAnyScale(Mat screenProcessed, Mat templateProcessed, double threshold,
+                                                    String templateImagePath) {
+        if (!TemplateConfig.isScaleMatchingEnabled()) {
+            return matchTemplate(screenProcessed, templateProcessed, threshold, templateImagePath);
+        }
 
-            // Find best match
-            Core.MinMaxLocResult mmr = Core.minMaxLoc(result);
+        TemplateMetadata metadata = loadTemplateMetadata(templateImagePath);
+        TemplateMetadata.CaptureGeometry capture = metadata != null ? metadata.capture : null;
+        TemplateMetadata.CaptureGeometry live = TemplateScaler.liveGeometry(driver);
+        if (TemplateScaler.isNative(TemplateScaler.expectedScale(capture, live))) {
+            return matchTemplate(screenProcessed, templateProcessed, threshold, templateImagePath);
+        }
 
-            // For SQDIFF methods, lower values are better (inverse)
-            double confidence = inverseResult ? mmr.minVal : mmr.maxVal;
-            Point matchLocation = inverseResult ? mmr.minLoc : mmr.maxLoc;
+        List<Double> scales = TemplateScaler.candidateScales(capture, live);
 
-            boolean isMatch = inverseResult ? (confidence <= threshold) : (confidence >= threshold);
+        List<MatchResult> results = new ArrayList<>();
+        if (TemplateScaler.isNative(scales.get(0))) {
+            results.addAll(matchTemplate(screenProcessed, templateProcessed, threshold, templateImagePath));
+            if (results.stream().anyMatch(result -> result.point != null)) {
+                return results;
+            }
+            scales = scales.subList(1, scales.size());
+        }
+        if (!scales.isEmpty()) {
+            log.info("Trying template '{}' at scales {}", templateImagePath, scales);
+            results.addAll(matchAtScales(screenProcessed, templateProcessed, threshold, templateImagePath, scales));
+        }
+        return results;
+    }
 
-            log.debug("Template matching result - Method: {}, Confidence: {}, Threshold: {}, Match: {}",
-                     getMethodName(method), confidence, threshold, isMatch);
+    /**
+     * Match a template resized to each scale concurrently, returning as soon as one scale matches
+     * Each task holds its own headers on the screen and template pixels, so tasks still running after
+     * an early return keep the data alive until they finish
+     */
+    private List<MatchResult> matchAtScales(Mat screenProcessed, Mat templateProcessed, double threshold,
+                                            String templateImagePath, List<Double> scales) {
+        ExecutorCompletionService<List<MatchResult>> completion = new ExecutorCompletionService<>(TEMPLATE_SCALE_EXECUTOR);
+        AtomicBoolean matched = new AtomicBoolean();
+
+        for (double scale : scales) {
+            Mat screenView = screenProcessed.submat(0, screenProcessed.rows(), 0, screenProcessed.cols());
+            Mat templateView = templateProcessed.submat(0, templateProcessed.rows(), 0, templateProcessed.cols());
+            completion.submit(() -> {
+                try (MatArena arena = MatArena.open("matchAtScale")) {
+                    arena.track(screenView);
+                    arena.track(templateView);
+                    if (matched.get()) {
+                        return Collections.emptyList();  // Another scale already matched
+                    }
 
-            if (isMatch) {
-                // Return center of matched area with confidence and match location
-                Point center = new Point(
-                    matchLocation.x + templateMat.cols() / 2,
-                    matchLocation.y + templateMat.rows() / 2
-                );
-                return new MatchResult(center, matchLocation, confidence);
+                    Mat scaled = arena.track(TemplateScaler.resize(templateView, scale));
+                    if (scaled.cols() > screenView.cols() || scaled.rows() > screenView.rows() || scaled.cols() < 4 || scaled.rows() < 4) {
+                        return Collections.emptyList();
+                    }
+
+                    List<MatchResult> scaleResults = matchTemplate(screenView, scaled, threshold, templateImagePath);
+                    for (MatchResult result : scaleResults) {
+                        result.scale = scale;
+                    }
+                    return scaleResults;
+                }
+            });
+        }
+
+        List<MatchResult> results = new ArrayList<>();
+        for (int i = 0; i < scales.size(); i++) {
+            try {
+                List<MatchResult> scaleResults = completion.take().get();
+                results.addAll(scaleResults);
+                if (scaleResults.stream().anyMatch(result -> result.point != null)) {
+                    matched.set(true);
+                    log.info("Template '{}' matched at scale {}", templateImagePath, String.format("%.2f", scaleResults.get(0).scale));
+                    break;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                matched.set(true);
+                break;
+            } catch (ExecutionException e) {
+                log.debug("Scaled match failed for '{}': {}", templateImagePath, e.getCause().getMessage());
             }
+        }
+        return results;
+    }
 
-            // Even for failures, return the best match location found (for debug visualization)
-            Point center = new Point(
-                matchLocation.x + templateMat.cols() / 2,
-                matchLocation.y + templateMat.rows() / 2
-            );
-            return new MatchResult(null, matchLocation, confidence);
+    /**
+     * Size of a template as matched for a result (after any rescaling)
+     */
+    private static Size scaledSize(Mat template, MatchResult result) {
+        return new Size(Math.round(template.cols() * result.scale), Math.round(template.rows() * result.scale));
+    }
 
-        } catch (Exception e) {
-            log.debug("Template matching failed for method {}: {}", getMethodName(method), e.getMessage());
-            return new MatchResult(null, null, 0.0);
+    /**
+     * Match one template on a preprocessed screen: a padded crop around the expected position first
+     * (region of interest from template metadata), then the full frame if the region missed
+     */
+    private List<MatchResult> matchTemplate(Mat screenProcessed, Mat templateProcessed, double threshold,
+                                            String templateImagePath) {
+        Rectangle region = expectedRegion(loadRegionHint(templateImagePath),
+                                          screenProcessed.cols(), screenProcessed.rows(),
+                                          templateProcessed.cols(), templateProcessed.rows());
+        if (region != null) {
+            log.info("Trying OpenCV strategies in expected region {} for template '{}'", region, templateImagePath);
+            List<MatchResult> results;
+            try (MatArena arena = MatArena.open("matchTemplate")) {
+                Mat screenRegion = arena.track(screenProcessed.submat(new Rect(region.x, region.y, region.width, region.height)));
+                results = runMatchStrategies(screenRegion, templateProcessed, threshold, templateImagePath);
+            }
+            translateResults(results, region.x, region.y);
+
+            if (results.stream().anyMatch(result -> result.point != null)) {
+                return results;
+            }
+            log.info("OpenCV match in expected region missed for '{}', falling back to full frame", templateImagePath);
+        }
+        return runMatchStrategies(screenProcessed, templateProcessed, threshold, templateImagePath);
+    }
+
+    /**
+     * Score OpenCV strategies in priority order: TM_CCOEFF_NORMED, TM_CCORR_NORMED, TM_SQDIFF_NORMED
+     * Single-pass mode correlates the full frame once and re-scores the others around the best peak
+     * Pyramid mode searches downscaled levels first and refines only the top-k candidates
+     * Parallel mode runs all full-frame strategies concurrently and applies the same priority order
+     */
+    private List<MatchResult> runMatchStrategies(Mat screenProcessed, Mat templateProcessed, double threshold,
+                                                 String templateImagePath) {
+        TemplateMatchEngine engine = new TemplateMatchEngine(screenProcessed, templateProcessed);
+        if (TemplateConfig.isPyramidMatchingEnabled()) {
+            log.info("Trying OpenCV strategies (pyramid) for template '{}'", templateImagePath);
+            return engine.matchPyramid(threshold);
+        } else if (TemplateConfig.isSinglePassMatchingEnabled()) {
+            log.info("Trying OpenCV strategies (single-pass) for template '{}'", templateImagePath);
+            return engine.matchSinglePass(threshold);
+        } else if (TemplateConfig.isParallelMatchingEnabled()) {
+            log.info("Trying OpenCV strategies (parallel) for template '{}'", templateImagePath);
+            return engine.matchParallel(threshold);
+        }
+        log.info("Trying OpenCV strategies (full-frame) for template '{}'", templateImagePath);
+        return engine.matchFullFrame(threshold);
+    }
+
+    /**
+     * Shift match locations from region coordinates back to full-screen coordinates
+     */
+    private void translateResults(List<MatchResult> results, int dx, int dy) {
+        for (MatchResult result : results) {
+            if (result.matchLocation != null) {
+                result.matchLocation = new Point(result.matchLocation.x + dx, result.matchLocation.y + dy);
+            }
+            if (result.point != null) {
+                result.point = new Point(result.point.x + dx, result.point.y + dy);
+            }
         }
     }
 
@@ -223,8 +329,8 @@ public class AIElementFinder {
      * Helper method to try a specific template matching algorithm
      */
     private Point tryTemplateMatching(Mat screenMat, Mat templateMat, int method, double threshold, boolean inverseResult) {
-        try {
-            Mat result = new Mat();
+        try (MatArena arena = MatArena.open("tryTemplateMatching")) {
+            Mat result = arena.newMat();
             Imgproc.matchTemplate(screenMat, templateMat, result, method);
 
             // Find best match
@@ -255,21 +361,6 @@ public class AIElementFinder {
         }
     }
 
-    /**
-     * Inner class to hold match result with confidence
-     */
-    private static class MatchResult {
-        Point point;           // Center point (for clicking)
-        Point matchLocation;   // Top-left corner (for drawing rectangle)
-        double confidence;
-
-        MatchResult(Point point, Point matchLocation, double confidence) {
-            this.point = point;
-            this.matchLocation = matchLocation;
-            this.confidence = confidence;
-        }
-    }
-
     /**
      * Get method name for logging
      */
@@ -285,27 +376,60 @@ public class AIElementFinder {
         }
     }
 
+    /**
+     * Load a template already preprocessed (cached per path and file modification time)
+     */
+    private Mat loadTemplateProcessed(String templateImagePath) {
+        return TemplateMatCache.get(templateImagePath, this::readTemplateProcessed);
+    }
+
+    /**
+     * Read a template and preprocess it: from the template store when it holds an up-to-date copy,
+     * otherwise decode the image file and preprocess it
+     */
+    private Mat readTemplateProcessed(String templateImagePath) {
+        TemplateStore store = TemplateStore.shared();
+        if (store != null && store.getFresh(templateImagePath) != null) {
+            Mat stored = store.loadPreprocessed(templateImagePath);
+            if (stored != null) {
+                log.debug("Template '{}' loaded from template store", templateImagePath);
+                return stored;
+            }
+        }
+
+        try (MatArena arena = MatArena.open("readTemplateProcessed")) {
+            Mat templateMat = arena.track(Imgcodecs.imread(templateImagePath));
+            if (templateMat.empty()) {
+                throw new RuntimeException("Template image not found: " + templateImagePath);
+            }
+            return preprocessImage(templateMat);
+        }
+    }
+
     /**
      * Preprocess image for better template matching
      * Converts to grayscale and applies Gaussian blur to reduce noise
+     * @return New Mat owned by the caller (the intermediate grayscale Mat is released here)
      */
-    private Mat preprocessImage(Mat image) {
-        Mat processed = new Mat();
+    static Mat preprocessImage(Mat image) {
+        try (MatArena arena = MatArena.open("preprocessImage")) {
+            Mat processed = arena.newMat();
 
-        // Step 1: Convert to grayscale (eliminates color variations)
-        if (image.channels() == 3) {
-            Imgproc.cvtColor(image, processed, Imgproc.COLOR_BGR2GRAY);
-        } else {
-            processed = image.clone();
-        }
+            // Step 1: Convert to grayscale (eliminates color variations)
+            if (image.channels() == 3) {
+                Imgproc.cvtColor(image, processed, Imgproc.COLOR_BGR2GRAY);
+            } else {
+                image.copyTo(processed);
+            }
 
-        // Step 2: Apply Gaussian blur to reduce noise and smooth edges
-        // Kernel size (3,3) is good for small noise, (5,5) for larger noise
-        // Using (3,3) for subtle smoothing without losing too much detail
-        Mat blurred = new Mat();
-        Imgproc.GaussianBlur(processed, blurred, new Size(3, 3), 0);
+            // Step 2: Apply Gaussian blur to reduce noise and smooth edges
+            // Kernel size (3,3) is good for small noise, (5,5) for larger noise
+            // Using (3,3) for subtle smoothing without losing too much detail
+            Mat blurred = arena.newMat();
+            Imgproc.GaussianBlur(processed, blurred, new Size(3, 3), 0);
 
-        return blurred;
+            return arena.detach(blurred);
+        }
     }
 
     /**
@@ -315,6 +439,118 @@ public class AIElementFinder {
         return findElementByImage(templateImagePath, 0.8);
     }
 
+    /**
+     * Find several templates on the current screen (e.g. all fields of a form)
+     * The screenshot is captured, decoded and preprocessed once; templates are scored in parallel
+     * @param templateImagePaths Paths to template image files
+     * @param threshold Matching threshold (0.0 to 1.0, default 0.8)
+     * @return Result per template path in input order: the match (point set), the best failed
+     *         attempt (point null), or null when the template could not be scored
+     */
+    public Map<String, MatchResult> findElementsByImage(List<String> templateImagePaths, double threshold) {
+        long startTime = System.currentTimeMillis();
+        Map<String, MatchResult> matches = new LinkedHashMap<>();
+
+        try (MatArena arena = MatArena.open("findElementsByImage")) {
+            byte[] screenshotBytes = ScreenshotProvider.forDriver(driver).getScreenshotBytes();
+            Mat screenMat = arena.track(decodeScreenshot(screenshotBytes));
+            Mat screenProcessed = arena.track(preprocessImage(screenMat));
+
+            // The preprocessed screen is shared read-only by every task
+            Map<String, Future<MatchResult>> pending = new LinkedHashMap<>();
+            for (String templateImagePath : new LinkedHashSet<>(templateImagePaths)) {
+                pending.put(templateImagePath, TEMPLATE_BATCH_EXECUTOR.submit(
+                        () -> scoreTemplate(screenProcessed, templateImagePath, threshold)));
+            }
+
+            // Wait for every task before the arena releases the screen
+            for (Map.Entry<String, Future<MatchResult>> entry : pending.entrySet()) {
+                matches.put(entry.getKey(), awaitBatchResult(entry.getKey(), entry.getValue()));
+            }
+        } catch (Exception e) {
+            log.error("Error in batch image matching: " + e.getMessage(), e);
+        }
+
+        long found = matches.values().stream().filter(result -> result != null && result.point != null).count();
+        log.info("Batch image search: {} of {} templates found in {}ms",
+                 found, templateImagePaths.size(), System.currentTimeMillis() - startTime);
+        return matches;
+    }
+
+    /**
+     * Find several templates on the current screen with default threshold
+     */
+    public Map<String, MatchResult> findElementsByImage(List<String> templateImagePaths) {
+        return findElementsByImage(templateImagePaths, 0.8);
+    }
+
+    /**
+     * Score one template of a batch against the shared preprocessed screen
+     * @return Successful result, best failed attempt, or null if the template could not be loaded
+     */
+    private MatchResult scoreTemplate(Mat screenProcessed, String templateImagePath, double threshold) {
+        long startTime = System.currentTimeMillis();
+
+        try (MatArena arena = MatArena.open("scoreTemplate")) {
+            Mat templateProcessed = arena.track(loadTemplateProcessed(templateImagePath));
+            List<MatchResult> results = matchTemplateAnyScale(screenProcessed, templateProcessed, threshold, templateImagePath);
+
+            MatchResult best = null;
+            for (MatchResult result : results) {
+                if (result.point != null) {
+                    best = result;
+                    break;
+                }
+                if (best == null || result.confidence > best.confidence) {
+                    best = result;
+                }
+            }
+
+            long matchTime = System.currentTimeMillis() - startTime;
+            if (best != null && best.point != null) {
+                log.info("SUCCESS: Template '{}' matched via {} at ({}, {})",
+                         templateImagePath, best.strategy.methodName, best.point.x, best.point.y);
+                saveDebugImage(screenProcessed, scaledSize(templateProcessed, best), best.matchLocation, templateImagePath, best.confidence, best.strategy.methodName);
+                TemplateUsageTracker.recordOpenCVSuccess(templateImagePath, best.confidence, matchTime);
+            } else {
+                log.info("Template '{}' not found in batch (best confidence: {})", templateImagePath, best != null ? best.confidence : 0.0);
+                if (best != null && best.matchLocation != null) {
+                    saveDebugFailure(screenProcessed, scaledSize(templateProcessed, best), best.matchLocation, templateImagePath, best.confidence);
+                }
+                TemplateUsageTracker.recordOpenCVFailure(templateImagePath, matchTime);
+            }
+            return best;
+
+        } catch (Exception e) {
+            log.warn("Batch matching failed for template '{}': {}", templateImagePath, e.getMessage());
+            TemplateUsageTracker.recordOpenCVFailure(templateImagePath, System.currentTimeMillis() - startTime);
+            return null;
+        }
+    }
+
+    /**
+     * Wait for a batch task even if this thread is interrupted (the task still reads the shared screen)
+     */
+    private MatchResult awaitBatchResult(String templateImagePath, Future<MatchResult> task) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    log.warn("Batch matching failed for template '{}': {}", templateImagePath, e.getCause().getMessage());
+                    return null;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     /**
      * Click on element found by image matching
      * @param templateImagePath Path to template image
@@ -342,88 +578,273 @@ public class AIElementFinder {
      * @return Point location of found text (center)
      */
     public Point findTextByOCR(String searchText) {
+        return findTextByOCR(searchText, null);
+    }
+
+    /**
+     * Find text on screen using OCR, searching the expected region first
+     * @param searchText Text to find
+     * @param regionHint Expected position of the field (from template metadata, can be null)
+     * @return Point location of found text (center)
+     */
+    public Point findTextByOCR(String searchText, TemplateMetadata.RelativePosition regionHint) {
         try {
             // Take screenshot
-            byte[] screenshotBytes = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            byte[] screenshotBytes = ScreenshotProvider.forDriver(driver).getScreenshotBytes();
             BufferedImage screenshot = ImageIO.read(new ByteArrayInputStream(screenshotBytes));
 
-            // Strategy 1: Two-pass OCR - Look for label and hint/value text
-            log.info("Trying OCR Strategy 1: Two-pass OCR for '{}'", searchText);
-            Point coordinates = tryTwoPassOCR(screenshot, searchText);
-            if (coordinates != null) {
-                log.info("SUCCESS: Text '{}' found via OCR Strategy 1 (Two-pass OCR) at ({}, {})", searchText, coordinates.x, coordinates.y);
-                return coordinates;
+            // Region of interest: OCR only a padded crop around the expected position first
+            Rectangle region = expectedRegion(regionHint, screenshot.getWidth(), screenshot.getHeight(), 1, 1);
+            if (region != null) {
+                log.info("Trying OCR strategies in expected region {} for '{}'", region, searchText);
+                List<Word> regionWords = recognizeWords(screenshotBytes, screenshot, region);
+                Point coordinates = runOCRStrategies(screenshot, regionWords, searchText);
+                if (coordinates != null) {
+                    return coordinates;
+                }
+                log.info("OCR in expected region missed for '{}', falling back to full frame", searchText);
             }
-            log.info("OCR Strategy 1 failed, trying next strategy");
 
-            // Strategy 2: Color-based detection - Find input area by background color
-            log.info("Trying OCR Strategy 2: Color-based detection for '{}'", searchText);
-            coordinates = tryColorBasedDetection(screenshot, searchText);
+            // One recognition pass per screen, shared by every strategy below (and by later lookups on the same screen)
+            List<Word> words = recognizeWords(screenshotBytes, screenshot, null);
+            Point coordinates = runOCRStrategies(screenshot, words, searchText);
             if (coordinates != null) {
-                log.info("SUCCESS: Text '{}' found via OCR Strategy 2 (Color-based) at ({}, {})", searchText, coordinates.x, coordinates.y);
                 return coordinates;
             }
-            log.info("OCR Strategy 2 failed, trying next strategy");
 
-            // Strategy 3: Smart offset with text bounds
-            log.info("Trying OCR Strategy 3: Smart offset for '{}'", searchText);
-            coordinates = trySmartOffset(screenshot, searchText);
+            // Final Fallback: Original simple OCR (returns screen center)
+            log.info("Trying Final Fallback: Simple OCR for '{}'", searchText);
+            String ocrResult = TesseractPool.withEngine(engine -> engine.doOCR(screenshot));
+            if (ocrResult.toLowerCase().contains(searchText.toLowerCase())) {
+                log.info("SUCCESS: Text '{}' found via OCR Fallback (Simple OCR) - returning center", searchText);
+                Dimension screenSize = driver.manage().window().getSize();
+                return new Point(screenSize.getWidth() / 2, screenSize.getHeight() / 2);
+            }
+
+            log.warn("Text '{}' not found via any OCR strategy", searchText);
+            return null;
+
+        } catch (Exception e) {
+            log.error("OCR error: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Run OCR word recognition on the full screenshot or a region of it (cached per screen + region).
+     * Word bounding boxes are always returned in full-screen coordinates.
+     */
+    private List<Word> recognizeWords(byte[] screenshotBytes, BufferedImage screenshot, Rectangle region) {
+        try {
+            if (region == null) {
+                return OCRWordCache.getWords(screenshotBytes, () -> TesseractPool.withEngine(engine -> engine.getWords(screenshot, 1)));
+            }
+
+            String regionKey = region.x + "," + region.y + "," + region.width + "x" + region.height;
+            return OCRWordCache.getWords(screenshotBytes, regionKey, () -> {
+                BufferedImage crop = screenshot.getSubimage(region.x, region.y, region.width, region.height);
+                List<Word> translated = new java.util.ArrayList<>();
+                List<Word> cropWords = TesseractPool.withEngine(engine -> engine.getWords(crop, 1));
+                for (Word word : cropWords) {
+                    Rectangle bounds = new Rectangle(word.getBoundingBox());
+                    bounds.translate(region.x, region.y);
+                    translated.add(new Word(word.getText(), word.getConfidence(), bounds));
+                }
+                return translated;
+            });
+        } catch (Exception e) {
+            log.debug("OCR word recognition failed: {}", e.getMessage());
+            return java.util.Collections.emptyList();
+        }
+    }
+
+    /**
+     * OCR strategy chain on a recognized word list (two-pass, color-based, smart offset, fixed offset)
+     * @return Click point, or null if no strategy found the field
+     */
+    private Point runOCRStrategies(BufferedImage screenshot, List<Word> words, String searchText) {
+        if (TemplateConfig.isParallelOCRStrategiesEnabled() && !words.isEmpty()) {
+            Point coordinates = raceOCRStrategies(screenshot, words, searchText);
             if (coordinates != null) {
-                log.info("SUCCESS: Text '{}' found via OCR Strategy 3 (Smart offset) at ({}, {})", searchText, coordinates.x, coordinates.y);
                 return coordinates;
             }
-            log.info("OCR Strategy 3 failed, trying ultimate fallback");
+            log.info("OCR Strategies 1-3 failed (parallel), trying ultimate fallback");
+            return tryFixedOffset(words, searchText);
+        }
 
-            // Ultimate Fallback: Fixed offset from label
-            log.info("Trying Ultimate Fallback: Fixed offset from label for '{}'", searchText);
-            try {
-                List<Word> words = tesseract.getWords(screenshot, 1);
-                Word labelWord = null;
-
-                // Try to find the label
-                for (Word word : words) {
-                    if (word.getText().toLowerCase().contains(searchText.toLowerCase())) {
-                        labelWord = word;
-                        break;
-                    }
+        // Strategy 1: Two-pass OCR - Look for label and hint/value text
+        log.info("Trying OCR Strategy 1: Two-pass OCR for '{}'", searchText);
+        Point coordinates = tryTwoPassOCR(screenshot, words, searchText);
+        if (coordinates != null) {
+            log.info("SUCCESS: Text '{}' found via OCR Strategy 1 (Two-pass OCR) at ({}, {})", searchText, coordinates.x, coordinates.y);
+            return coordinates;
+        }
+        log.info("OCR Strategy 1 failed, trying next strategy");
+
+        // Strategy 2: Color-based detection - Find input area by background color
+        log.info("Trying OCR Strategy 2: Color-based detection for '{}'", searchText);
+        coordinates = tryColorBasedDetection(screenshot, words, searchText);
+        if (coordinates != null) {
+            log.info("SUCCESS: Text '{}' found via OCR Strategy 2 (Color-based) at ({}, {})", searchText, coordinates.x, coordinates.y);
+            return coordinates;
+        }
+        log.info("OCR Strategy 2 failed, trying next strategy");
+
+        // Strategy 3: Smart offset with text bounds
+        log.info("Trying OCR Strategy 3: Smart offset for '{}'", searchText);
+        coordinates = trySmartOffset(screenshot, words, searchText);
+        if (coordinates != null) {
+            log.info("SUCCESS: Text '{}' found via OCR Strategy 3 (Smart offset) at ({}, {})", searchText, coordinates.x, coordinates.y);
+            return coordinates;
+        }
+        log.info("OCR Strategy 3 failed, trying ultimate fallback");
+        return tryFixedOffset(words, searchText);
+    }
+
+    /**
+     * Run OCR strategies 1-3 concurrently on the shared word list and return the highest-priority success.
+     * Results are collected in priority order; once one succeeds, lower-priority strategies still running are cancelled.
+     */
+    private Point raceOCRStrategies(BufferedImage screenshot, List<Word> words, String searchText) {
+        log.info("Trying OCR Strategies 1-3 in parallel for '{}'", searchText);
+        String[] names = {"Strategy 1 (Two-pass OCR)", "Strategy 2 (Color-based)", "Strategy 3 (Smart offset)"};
+        List<Future<Point>> futures = Arrays.asList(
+                OCR_STRATEGY_EXECUTOR.submit(() -> tryTwoPassOCR(screenshot, words, searchText)),
+                OCR_STRATEGY_EXECUTOR.submit(() -> tryColorBasedDetection(screenshot, words, searchText)),
+                OCR_STRATEGY_EXECUTOR.submit(() -> trySmartOffset(screenshot, words, searchText)));
+
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Point coordinates;
+                try {
+                    coordinates = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    log.debug("OCR {} failed: {}", names[i], e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                    continue;
+                }
+                if (coordinates != null) {
+                    log.info("SUCCESS: Text '{}' found via OCR {} at ({}, {})", searchText, names[i], coordinates.x, coordinates.y);
+                    return coordinates;
                 }
+                log.info("OCR {} failed", names[i]);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // No-op for strategies that already finished
+            for (Future<Point> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return null;
+    }
 
-                if (labelWord != null) {
-                    // Use label position with standard offset
-                    Rectangle bounds = labelWord.getBoundingBox();
-                    int targetX = bounds.x + bounds.width / 2;
-                    int targetY = bounds.y + bounds.height + 120;  // 120px below label
+    /**
+     * Ultimate Fallback: Fixed offset below the label
+     */
+    private Point tryFixedOffset(List<Word> words, String searchText) {
+        log.info("Trying Ultimate Fallback: Fixed offset from label for '{}'", searchText);
+        try {
+            Word labelWord = null;
 
-                    log.info("SUCCESS: Text '{}' found via Ultimate Fallback (Fixed offset) at ({}, {})", searchText, targetX, targetY);
-                    return new Point(targetX, targetY);
+            // Try to find the label
+            for (Word word : words) {
+                if (word.getText().toLowerCase().contains(searchText.toLowerCase())) {
+                    labelWord = word;
+                    break;
                 }
-            } catch (Exception e) {
-                log.debug("Ultimate fallback failed: {}", e.getMessage());
             }
 
-            // Final Fallback: Original simple OCR (returns screen center)
-            log.info("Trying Final Fallback: Simple OCR for '{}'", searchText);
-            String ocrResult = tesseract.doOCR(screenshot);
-            if (ocrResult.toLowerCase().contains(searchText.toLowerCase())) {
-                log.info("SUCCESS: Text '{}' found via OCR Fallback (Simple OCR) - returning center", searchText);
-                Dimension screenSize = driver.manage().window().getSize();
-                return new Point(screenSize.getWidth() / 2, screenSize.getHeight() / 2);
+            if (labelWord != null) {
+                // Use label position with standard offset
+                Rectangle bounds = labelWord.getBoundingBox();
+                int targetX = bounds.x + bounds.width / 2;
+                int targetY = bounds.y + bounds.height + 120;  // 120px below label
+
+                log.info("SUCCESS: Text '{}' found via Ultimate Fallback (Fixed offset) at ({}, {})", searchText, targetX, targetY);
+                return new Point(targetX, targetY);
             }
+        } catch (Exception e) {
+            log.debug("Ultimate fallback failed: {}", e.getMessage());
+        }
 
-            log.warn("Text '{}' not found via any OCR strategy", searchText);
+        return null;
+    }
+
+    /**
+     * Padded pixel window around a normalized expected position, or null when no useful hint applies
+     * @param hint Normalized position from template metadata (can be null)
+     * @param screenWidth Screen width in pixels
+     * @param screenHeight Screen height in pixels
+     * @param minWidth Minimum window width (e.g. template width)
+     * @param minHeight Minimum window height (e.g. template height)
+     */
+    private Rectangle expectedRegion(TemplateMetadata.RelativePosition hint, int screenWidth, int screenHeight,
+                                     int minWidth, int minHeight) {
+        if (hint == null || !TemplateConfig.isRegionHintEnabled()) {
+            return null;
+        }
+        if (hint.width <= 0 || hint.height <= 0 || hint.x < 0 || hint.y < 0 || hint.x > 1 || hint.y > 1) {
+            log.debug("Ignoring invalid region hint: ({}, {}, {}, {})", hint.x, hint.y, hint.width, hint.height);
             return null;
+        }
 
-        } catch (Exception e) {
-            log.error("OCR error: " + e.getMessage(), e);
+        double padding = TemplateConfig.getRegionHintPadding();
+        int x = Math.max(0, (int) Math.floor((hint.x - padding) * screenWidth));
+        int y = Math.max(0, (int) Math.floor((hint.y - padding) * screenHeight));
+        int right = Math.min(screenWidth, (int) Math.ceil((hint.x + hint.width + padding) * screenWidth));
+        int bottom = Math.min(screenHeight, (int) Math.ceil((hint.y + hint.height + padding) * screenHeight));
+
+        if (right - x < minWidth || bottom - y < minHeight) {
+            return null;  // Template would not fit inside the window
+        }
+        if ((double) (right - x) * (bottom - y) > 0.75 * screenWidth * screenHeight) {
+            return null;  // Window covers most of the screen, cropping would not save anything
+        }
+        return new Rectangle(x, y, right - x, bottom - y);
+    }
+
+    /**
+     * Expected position of a template from its metadata sidecar (null if unknown)
+     */
+    private TemplateMetadata.RelativePosition loadRegionHint(String templateImagePath) {
+        if (templateImagePath == null || templateImagePath.isEmpty() || !TemplateConfig.isRegionHintEnabled()) {
             return null;
         }
+        TemplateMetadata metadata = loadTemplateMetadata(templateImagePath);
+        return metadata != null ? metadata.relativePosition : null;
+    }
+
+    /**
+     * Read template metadata: from the template store when enabled, otherwise the shared registry
+     * (either way it is parsed once per run, not on every match)
+     */
+    private TemplateMetadata loadTemplateMetadata(String templateImagePath) {
+        if (templateImagePath == null || templateImagePath.isEmpty()) {
+            return null;
+        }
+        TemplateStore store = TemplateStore.shared();
+        if (store != null) {
+            TemplateMetadata metadata = STORED_METADATA.computeIfAbsent(templateImagePath, store::loadMetadata);
+            if (metadata != null) {
+                return metadata;
+            }
+        }
+        return TemplateMetadataRegistry.get(templateImagePath);
     }
     
     /**
      * Click on text found via OCR
      */
     public boolean clickByOCR(String searchText) {
-        Point location = findTextByOCR(searchText);
+        return clickByOCR(searchText, null);
+    }
+
+    /**
+     * Click on text found via OCR, searching the expected region first
+     */
+    public boolean clickByOCR(String searchText, TemplateMetadata.RelativePosition regionHint) {
+        Point location = findTextByOCR(searchText, regionHint);
         if (location != null) {
             clickAtCoordinates((int) location.x, (int) location.y);
             return true;
@@ -452,7 +873,8 @@ public class AIElementFinder {
         // Strategy 2: OCR text finding
         if (searchText != null && !searchText.isEmpty()) {
             log.debug("Trying OCR text finding strategy...");
-            if (clickByOCR(searchText)) {
+            // Template metadata (if any) tells where the field usually sits on screen
+            if (clickByOCR(searchText, loadRegionHint(templateImage))) {
                 log.info("Success with OCR text finding");
                 return true;
             }
@@ -483,22 +905,65 @@ public class AIElementFinder {
     }
     
     /**
-     * Convert BufferedImage to OpenCV Mat
+     * Decode screenshot PNG bytes directly into a BGR OpenCV Mat (no BufferedImage round-trip)
+     */
+    private Mat decodeScreenshot(byte[] pngBytes) {
+        MatOfByte encoded = new MatOfByte(pngBytes);
+        Mat mat = Imgcodecs.imdecode(encoded, Imgcodecs.IMREAD_COLOR);
+        encoded.release();
+
+        if (mat.empty()) {
+            // Fall back to ImageIO for formats OpenCV could not decode
+            log.debug("imdecode returned empty Mat, falling back to ImageIO");
+            try {
+                return bufferedImageToMat(ImageIO.read(new ByteArrayInputStream(pngBytes)));
+            } catch (java.io.IOException e) {
+                throw new RuntimeException("Failed to decode screenshot: " + e.getMessage(), e);
+            }
+        }
+        return mat;
+    }
+
+    /**
+     * Convert BufferedImage to BGR OpenCV Mat
+     * Byte-backed rasters (TYPE_3BYTE_BGR / TYPE_4BYTE_ABGR, as produced by ImageIO for PNGs) are bulk-copied;
+     * other types go through a single bulk getRGB call instead of per-pixel lookups
      */
     private Mat bufferedImageToMat(BufferedImage bufferedImage) {
-        byte[] pixels = new byte[bufferedImage.getWidth() * bufferedImage.getHeight() * 3];
-        int index = 0;
-        
-        for (int y = 0; y < bufferedImage.getHeight(); y++) {
-            for (int x = 0; x < bufferedImage.getWidth(); x++) {
-                int rgb = bufferedImage.getRGB(x, y);
-                pixels[index++] = (byte) ((rgb >> 16) & 0xFF); // Blue
-                pixels[index++] = (byte) ((rgb >> 8) & 0xFF);  // Green
-                pixels[index++] = (byte) (rgb & 0xFF);         // Red
+        int width = bufferedImage.getWidth();
+        int height = bufferedImage.getHeight();
+
+        if (bufferedImage.getRaster().getDataBuffer() instanceof DataBufferByte) {
+            byte[] data = ((DataBufferByte) bufferedImage.getRaster().getDataBuffer()).getData();
+
+            if (bufferedImage.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+                Mat mat = new Mat(height, width, CvType.CV_8UC3);
+                mat.put(0, 0, data);
+                return mat;
+            }
+
+            if (bufferedImage.getType() == BufferedImage.TYPE_4BYTE_ABGR) {
+                // Bytes are A,B,G,R per pixel - drop alpha channel
+                Mat abgr = new Mat(height, width, CvType.CV_8UC4);
+                abgr.put(0, 0, data);
+                Mat mat = new Mat(height, width, CvType.CV_8UC3);
+                Core.mixChannels(Arrays.asList(abgr), Arrays.asList(mat), new MatOfInt(1, 0, 2, 1, 3, 2));
+                abgr.release();
+                return mat;
             }
         }
-        
-        Mat mat = new Mat(bufferedImage.getHeight(), bufferedImage.getWidth(), CvType.CV_8UC3);
+
+        int[] argb = bufferedImage.getRGB(0, 0, width, height, null, 0, width);
+        byte[] pixels = new byte[width * height * 3];
+        int index = 0;
+
+        for (int rgb : argb) {
+            pixels[index++] = (byte) (rgb & 0xFF);         // Blue
+            pixels[index++] = (byte) ((rgb >> 8) & 0xFF);  // Green
+            pixels[index++] = (byte) ((rgb >> 16) & 0xFF); // Red
+        }
+
+        Mat mat = new Mat(height, width, CvType.CV_8UC3);
         mat.put(0, 0, pixels);
         return mat;
     }
@@ -508,7 +973,7 @@ public class AIElementFinder {
      */
     public void saveScreenshot(String filename) {
         try {
-            byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            byte[] screenshot = ScreenshotProvider.forDriver(driver).getScreenshotBytes();
             File file = new File("screenshots/" + filename);
             file.getParentFile().mkdirs();
             java.nio.file.Files.write(file.toPath(), screenshot);
@@ -521,9 +986,8 @@ public class AIElementFinder {
     /**
      * Strategy 1: Two-pass OCR - Find label text, then look for hint/value text below
      */
-    private Point tryTwoPassOCR(BufferedImage screenshot, String searchText) {
+    private Point tryTwoPassOCR(BufferedImage screenshot, List<Word> words, String searchText) {
         try {
-            List<Word> words = tesseract.getWords(screenshot, 1);
             Word labelWord = null;
 
             // First pass: Find the label text
@@ -604,9 +1068,8 @@ public class AIElementFinder {
     /**
      * Strategy 2: Color-based detection - Find input area by background color changes
      */
-    private Point tryColorBasedDetection(BufferedImage screenshot, String searchText) {
+    private Point tryColorBasedDetection(BufferedImage screenshot, List<Word> words, String searchText) {
         try {
-            List<Word> words = tesseract.getWords(screenshot, 1);
             Word labelWord = null;
 
             // Find the label text first
@@ -636,6 +1099,9 @@ public class AIElementFinder {
             int coloredRegionBottom = -1;
 
             for (int y = startY; y < Math.min(startY + searchHeight, screenshot.getHeight() - 1); y += 5) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return null;  // Cancelled by a higher-priority strategy (parallel OCR mode)
+                }
                 for (int x = startX; x < Math.min(startX + searchWidth, screenshot.getWidth() - 1); x += 10) {
                     int currentColor = screenshot.getRGB(x, y);
 
@@ -693,9 +1159,8 @@ public class AIElementFinder {
     /**
      * Strategy 3: Smart offset based on text bounds
      */
-    private Point trySmartOffset(BufferedImage screenshot, String searchText) {
+    private Point trySmartOffset(BufferedImage screenshot, List<Word> words, String searchText) {
         try {
-            List<Word> words = tesseract.getWords(screenshot, 1);
             Word labelWord = null;
 
             // Find the label
@@ -801,57 +1266,19 @@ public class AIElementFinder {
     /**
      * Save debug image with rectangle showing matched region (Phase 1 + 2)
      * @param screenMat Original screen image
-     * @param templateMat Template image that was matched
+     * @param templateSize Size of the template as matched (after any rescaling)
      * @param matchLoc Top-left point of match location
      * @param templatePath Path to template file
      * @param confidence Match confidence score
      * @param method Matching method name
      */
-    private void saveDebugImage(Mat screenMat, Mat templateMat, Point matchLoc,
+    private void saveDebugImage(Mat screenMat, Size templateSize, Point matchLoc,
                                 String templatePath, double confidence, String method) {
         if (!TemplateConfig.isDebugModeEnabled()) {
             return;
         }
 
         try {
-            // Clone screen image for drawing
-            Mat debugImage = screenMat.clone();
-
-            // Convert from grayscale back to color for colored rectangle
-            if (debugImage.channels() == 1) {
-                Mat colorImage = new Mat();
-                Imgproc.cvtColor(debugImage, colorImage, Imgproc.COLOR_GRAY2BGR);
-                debugImage = colorImage;
-            }
-
-            // Calculate rectangle bounds
-            Point topLeft = matchLoc;
-            Point bottomRight = new Point(
-                matchLoc.x + templateMat.cols(),
-                matchLoc.y + templateMat.rows()
-            );
-
-            // Color based on confidence: Green (high), Yellow (medium), Red (low)
-            Scalar color = confidence >= 0.9 ? new Scalar(0, 255, 0) :  // Green
-                          confidence >= 0.8 ? new Scalar(0, 255, 255) : // Yellow
-                                             new Scalar(0, 0, 255);      // Red
-
-            // Draw rectangle (thickness 3)
-            Imgproc.rectangle(debugImage, topLeft, bottomRight, color, 3);
-
-            // Add text label with method and confidence
-            String label = String.format("%s: %.2f", method, confidence);
-            Imgproc.putText(debugImage, label,
-                           new Point(topLeft.x, topLeft.y - 10),
-                           Imgproc.FONT_HERSHEY_SIMPLEX, 0.7, color, 2);
-
-            // Add center crosshair
-            Point center = new Point(
-                matchLoc.x + templateMat.cols() / 2,
-                matchLoc.y + templateMat.rows() / 2
-            );
-            Imgproc.drawMarker(debugImage, center, color, Imgproc.MARKER_CROSS, 20, 2);
-
             // Determine subfolder based on confidence
             String subfolder = confidence >= 0.8 ? "success" : "failures";
 
@@ -878,16 +1305,37 @@ public class AIElementFinder {
                                         System.currentTimeMillis());
             }
 
-            // Create directories and save
-            File debugFile = new File(debugPath);
-            debugFile.getParentFile().mkdirs();
-            boolean success = Imgcodecs.imwrite(debugFile.getAbsolutePath(), debugImage);
+            // Copy the frame; colour conversion, drawing and encoding run on the debug writer thread
+            DebugImageWriter.submit(debugPath, screenMat.clone(), debugImage -> {
+                // Calculate rectangle bounds
+                Point topLeft = matchLoc;
+                Point bottomRight = new Point(
+                    matchLoc.x + templateSize.width,
+                    matchLoc.y + templateSize.height
+                );
 
-            if (success) {
-                log.info("Debug match image saved: {}", debugFile.getAbsolutePath());
-            } else {
-                log.error("FAILED to save debug image: {} (imwrite returned false)", debugFile.getAbsolutePath());
-            }
+                // Color based on confidence: Green (high), Yellow (medium), Red (low)
+                Scalar color = confidence >= 0.9 ? new Scalar(0, 255, 0) :  // Green
+                              confidence >= 0.8 ? new Scalar(0, 255, 255) : // Yellow
+                                                 new Scalar(0, 0, 255);      // Red
+
+                // Draw rectangle (thickness 3)
+                Imgproc.rectangle(debugImage, topLeft, bottomRight, color, 3);
+
+                // Add text label with method and confidence
+                String label = String.format("%s: %.2f", method, confidence);
+                Imgproc.putText(debugImage, label,
+                               new Point(topLeft.x, topLeft.y - 10),
+                               Imgproc.FONT_HERSHEY_SIMPLEX, 0.7, color, 2);
+
+                // Add center crosshair
+                Point center = new Point(
+                    matchLoc.x + templateSize.width / 2,
+                    matchLoc.y + templateSize.height / 2
+                );
+                Imgproc.drawMarker(debugImage, center, color, Imgproc.MARKER_CROSS, 20, 2);
+            });
+            log.info("Debug match image queued: {}", debugPath);
 
         } catch (Exception e) {
             log.warn("Failed to save debug image: {}", e.getMessage());
@@ -897,62 +1345,18 @@ public class AIElementFinder {
     /**
      * Save debug image for failed match showing best attempt (Phase 3)
      * @param screenMat Original screen image
-     * @param templateMat Template image that failed to match
+     * @param templateSize Size of the template as matched (after any rescaling)
      * @param bestMatchLoc Best match location found (even though confidence was too low)
      * @param templatePath Path to template file
      * @param bestConfidence Best confidence score achieved
      */
-    private void saveDebugFailure(Mat screenMat, Mat templateMat, Point bestMatchLoc,
+    private void saveDebugFailure(Mat screenMat, Size templateSize, Point bestMatchLoc,
                                   String templatePath, double bestConfidence) {
         if (!TemplateConfig.isDebugModeEnabled()) {
             return;
         }
 
         try {
-            // Clone screen image for drawing
-            Mat debugImage = screenMat.clone();
-
-            // Ensure image is in BGR format (3 channels) for OpenCV imwrite
-            if (debugImage.channels() == 1) {
-                // Grayscale -> BGR
-                Mat colorImage = new Mat();
-                Imgproc.cvtColor(debugImage, colorImage, Imgproc.COLOR_GRAY2BGR);
-                debugImage.release();  // Release old Mat
-                debugImage = colorImage;
-            } else if (debugImage.channels() == 4) {
-                // BGRA -> BGR (remove alpha channel which can cause imwrite issues)
-                Mat bgrImage = new Mat();
-                Imgproc.cvtColor(debugImage, bgrImage, Imgproc.COLOR_BGRA2BGR);
-                debugImage.release();  // Release old Mat
-                debugImage = bgrImage;
-            }
-
-            // Calculate rectangle bounds
-            Point topLeft = bestMatchLoc;
-            Point bottomRight = new Point(
-                bestMatchLoc.x + templateMat.cols(),
-                bestMatchLoc.y + templateMat.rows()
-            );
-
-            // Red color for failures
-            Scalar color = new Scalar(0, 0, 255);
-
-            // Draw rectangle (thickness 3)
-            Imgproc.rectangle(debugImage, topLeft, bottomRight, color, 3);
-
-            // Add text label indicating failure with best confidence
-            String label = String.format("FAIL: Best=%.2f", bestConfidence);
-            Imgproc.putText(debugImage, label,
-                           new Point(topLeft.x, topLeft.y - 10),
-                           Imgproc.FONT_HERSHEY_SIMPLEX, 0.7, color, 2);
-
-            // Add center crosshair
-            Point center = new Point(
-                bestMatchLoc.x + templateMat.cols() / 2,
-                bestMatchLoc.y + templateMat.rows() / 2
-            );
-            Imgproc.drawMarker(debugImage, center, color, Imgproc.MARKER_CROSS, 20, 2);
-
             // Build file path (always goes to failures folder)
             String filename = new File(templatePath).getName().replace(".png", "");
             String debugPath;
@@ -974,16 +1378,35 @@ public class AIElementFinder {
                                         System.currentTimeMillis());
             }
 
-            // Create directories and save
-            File debugFile = new File(debugPath);
-            debugFile.getParentFile().mkdirs();
-            boolean success = Imgcodecs.imwrite(debugFile.getAbsolutePath(), debugImage);
+            // Copy the frame; colour conversion, drawing and encoding run on the debug writer thread
+            DebugImageWriter.submit(debugPath, screenMat.clone(), debugImage -> {
+                // Calculate rectangle bounds
+                Point topLeft = bestMatchLoc;
+                Point bottomRight = new Point(
+                    bestMatchLoc.x + templateSize.width,
+                    bestMatchLoc.y + templateSize.height
+                );
 
-            if (success) {
-                log.info("Debug failure image saved: {}", debugFile.getAbsolutePath());
-            } else {
-                log.error("FAILED to save debug failure image: {} (imwrite returned false)", debugFile.getAbsolutePath());
-            }
+                // Red color for failures
+                Scalar color = new Scalar(0, 0, 255);
+
+                // Draw rectangle (thickness 3)
+                Imgproc.rectangle(debugImage, topLeft, bottomRight, color, 3);
+
+                // Add text label indicating failure with best confidence
+                String label = String.format("FAIL: Best=%.2f", bestConfidence);
+                Imgproc.putText(debugImage, label,
+                               new Point(topLeft.x, topLeft.y - 10),
+                               Imgproc.FONT_HERSHEY_SIMPLEX, 0.7, color, 2);
+
+                // Add center crosshair
+                Point center = new Point(
+                    bestMatchLoc.x + templateSize.width / 2,
+                    bestMatchLoc.y + templateSize.height / 2
+                );
+                Imgproc.drawMarker(debugImage, center, color, Imgproc.MARKER_CROSS, 20, 2);
+            });
+            log.info("Debug failure image queued: {}", debugPath);
 
         } catch (Exception e) {
             log.warn("Failed to save debug failure image: {}", e.getMessage());
@@ -1010,70 +1433,6 @@ public class AIElementFinder {
         }
 
         try {
-            // Convert BufferedImage to OpenCV Mat for drawing
-            Mat debugImage = bufferedImageToMat(screenshot);
-
-            // Convert from BGR to color if needed
-            if (debugImage.channels() == 1) {
-                Mat colorImage = new Mat();
-                Imgproc.cvtColor(debugImage, colorImage, Imgproc.COLOR_GRAY2BGR);
-                debugImage = colorImage;
-            } else if (debugImage.channels() == 3) {
-                // Already in BGR format, ensure it's color
-                Mat colorImage = new Mat();
-                Imgproc.cvtColor(debugImage, colorImage, Imgproc.COLOR_RGB2BGR);
-                debugImage = colorImage;
-            }
-
-            // Draw label bounding box (Blue)
-            if (labelBounds != null) {
-                Point topLeft = new Point(labelBounds.x, labelBounds.y);
-                Point bottomRight = new Point(labelBounds.x + labelBounds.width,
-                                             labelBounds.y + labelBounds.height);
-                Scalar blueColor = new Scalar(255, 0, 0); // Blue in BGR
-                Imgproc.rectangle(debugImage, topLeft, bottomRight, blueColor, 2);
-                Imgproc.putText(debugImage, "LABEL",
-                               new Point(topLeft.x, topLeft.y - 5),
-                               Imgproc.FONT_HERSHEY_SIMPLEX, 0.5, blueColor, 2);
-            }
-
-            // Draw hint/value text bounding box (Green)
-            if (hintBounds != null) {
-                Point topLeft = new Point(hintBounds.x, hintBounds.y);
-                Point bottomRight = new Point(hintBounds.x + hintBounds.width,
-                                             hintBounds.y + hintBounds.height);
-                Scalar greenColor = new Scalar(0, 255, 0); // Green in BGR
-                Imgproc.rectangle(debugImage, topLeft, bottomRight, greenColor, 2);
-                Imgproc.putText(debugImage, "HINT",
-                               new Point(topLeft.x, topLeft.y - 5),
-                               Imgproc.FONT_HERSHEY_SIMPLEX, 0.5, greenColor, 2);
-            }
-
-            // Draw color-detected region (Orange)
-            if (colorRegion != null) {
-                Point topLeft = new Point(colorRegion.x, colorRegion.y);
-                Point bottomRight = new Point(colorRegion.x + colorRegion.width,
-                                             colorRegion.y + colorRegion.height);
-                Scalar orangeColor = new Scalar(0, 165, 255); // Orange in BGR
-                Imgproc.rectangle(debugImage, topLeft, bottomRight, orangeColor, 2);
-                Imgproc.putText(debugImage, "COLOR REGION",
-                               new Point(topLeft.x, topLeft.y - 5),
-                               Imgproc.FONT_HERSHEY_SIMPLEX, 0.5, orangeColor, 2);
-            }
-
-            // Draw click point with crosshair (Red for success, Dark red for failure)
-            if (clickPoint != null) {
-                Scalar clickColor = success ? new Scalar(0, 0, 255) : new Scalar(0, 0, 139); // Red/Dark red
-                Imgproc.drawMarker(debugImage, clickPoint, clickColor,
-                                  Imgproc.MARKER_CROSS, 30, 3);
-
-                // Add strategy label
-                String label = String.format("%s: %s", strategy, success ? "SUCCESS" : "FAIL");
-                Imgproc.putText(debugImage, label,
-                               new Point(clickPoint.x - 50, clickPoint.y - 40),
-                               Imgproc.FONT_HERSHEY_SIMPLEX, 0.7, clickColor, 2);
-            }
-
             // Determine subfolder
             String subfolder = success ? "success" : "failures";
 
@@ -1099,16 +1458,58 @@ public class AIElementFinder {
                                         System.currentTimeMillis());
             }
 
-            // Create directories and save
-            File debugFile = new File(debugPath);
-            debugFile.getParentFile().mkdirs();
-            boolean writeSuccess = Imgcodecs.imwrite(debugFile.getAbsolutePath(), debugImage);
+            // Copy the frame; colour conversion, drawing and encoding run on the debug writer thread
+            DebugImageWriter.submit(debugPath, bufferedImageToMat(screenshot), debugImage -> {
+                // Draw label bounding box (Blue)
+                if (labelBounds != null) {
+                    Point topLeft = new Point(labelBounds.x, labelBounds.y);
+                    Point bottomRight = new Point(labelBounds.x + labelBounds.width,
+                                                 labelBounds.y + labelBounds.height);
+                    Scalar blueColor = new Scalar(255, 0, 0); // Blue in BGR
+                    Imgproc.rectangle(debugImage, topLeft, bottomRight, blueColor, 2);
+                    Imgproc.putText(debugImage, "LABEL",
+                                   new Point(topLeft.x, topLeft.y - 5),
+                                   Imgproc.FONT_HERSHEY_SIMPLEX, 0.5, blueColor, 2);
+                }
 
-            if (writeSuccess) {
-                log.info("Debug OCR image saved: {}", debugFile.getAbsolutePath());
-            } else {
-                log.error("FAILED to save debug OCR image: {} (imwrite returned false)", debugFile.getAbsolutePath());
-            }
+                // Draw hint/value text bounding box (Green)
+                if (hintBounds != null) {
+                    Point topLeft = new Point(hintBounds.x, hintBounds.y);
+                    Point bottomRight = new Point(hintBounds.x + hintBounds.width,
+                                                 hintBounds.y + hintBounds.height);
+                    Scalar greenColor = new Scalar(0, 255, 0); // Green in BGR
+                    Imgproc.rectangle(debugImage, topLeft, bottomRight, greenColor, 2);
+                    Imgproc.putText(debugImage, "HINT",
+                                   new Point(topLeft.x, topLeft.y - 5),
+                                   Imgproc.FONT_HERSHEY_SIMPLEX, 0.5, greenColor, 2);
+                }
+
+                // Draw color-detected region (Orange)
+                if (colorRegion != null) {
+                    Point topLeft = new Point(colorRegion.x, colorRegion.y);
+                    Point bottomRight = new Point(colorRegion.x + colorRegion.width,
+                                                 colorRegion.y + colorRegion.height);
+                    Scalar orangeColor = new Scalar(0, 165, 255); // Orange in BGR
+                    Imgproc.rectangle(debugImage, topLeft, bottomRight, orangeColor, 2);
+                    Imgproc.putText(debugImage, "COLOR REGION",
+                                   new Point(topLeft.x, topLeft.y - 5),
+                                   Imgproc.FONT_HERSHEY_SIMPLEX, 0.5, orangeColor, 2);
+                }
+
+                // Draw click point with crosshair (Red for success, Dark red for failure)
+                if (clickPoint != null) {
+                    Scalar clickColor = success ? new Scalar(0, 0, 255) : new Scalar(0, 0, 139); // Red/Dark red
+                    Imgproc.drawMarker(debugImage, clickPoint, clickColor,
+                                      Imgproc.MARKER_CROSS, 30, 3);
+
+                    // Add strategy label
+                    String label = String.format("%s: %s", strategy, success ? "SUCCESS" : "FAIL");
+                    Imgproc.putText(debugImage, label,
+                                   new Point(clickPoint.x - 50, clickPoint.y - 40),
+                                   Imgproc.FONT_HERSHEY_SIMPLEX, 0.7, clickColor, 2);
+                }
+            });
+            log.info("Debug OCR image queued: {}", debugPath);
 
         } catch (Exception e) {
             log.warn("Failed to save debug OCR image: {}", e.getMessage());
@@ -3,7 +3,6 @@ package com.test.channelplay.mobile.config_Helper;
 import io.appium.java_client.AppiumDriver;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.Rectangle;
-import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebElement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -92,9 +91,16 @@ public class AutoTemplateManager {
             // Convert to java.awt.Dimension
             java.awt.Dimension screenSize = new java.awt.Dimension(seleniumSize.width, seleniumSize.height);
             TemplateMetadata metadata = TemplateMetadata.createFromImage(
-                templatePath, elementImage, elementName, "XPath", bounds, screenSize
+                templatePath, elementImage, elementName, "XPath", bounds, screenSize,
+                TemplateScaler.liveGeometry(driver).density
             );
 
+            // Keep the single-file template store (if enabled) in sync with the new capture
+            TemplateStore store = TemplateStore.shared();
+            if (store != null) {
+                store.put(templatePath);
+            }
+
             capturedTemplates.add(templatePath);
             manageElementVersions(sanitizedName, templatePath);
 
@@ -123,7 +129,7 @@ public class AutoTemplateManager {
             String templatePath = getCurrentFolder("templates/AI_images") + "/" + templateName;
 
             // Take full screenshot
-            byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            byte[] screenshot = ScreenshotProvider.forDriver(driver).getScreenshotBytes();
             BufferedImage fullImage = ImageIO.read(new ByteArrayInputStream(screenshot));
 
             // Crop to element bounds
@@ -149,9 +155,16 @@ public class AutoTemplateManager {
             // Convert to java.awt.Dimension
             java.awt.Dimension screenSize = new java.awt.Dimension(seleniumSize.width, seleniumSize.height);
             TemplateMetadata metadata = TemplateMetadata.createFromImage(
-                templatePath, croppedImage, elementName, "AI", bounds, screenSize
+                templatePath, croppedImage, elementName, "AI", bounds, screenSize,
+                TemplateScaler.liveGeometry(driver).density
             );
 
+            // Keep the single-file template store (if enabled) in sync with the new capture
+            TemplateStore store = TemplateStore.shared();
+            if (store != null) {
+                store.put(templatePath);
+            }
+
             capturedTemplates.add(templatePath);
             manageElementVersions(sanitizedName + "_ai", templatePath);
 
@@ -181,7 +194,7 @@ public class AutoTemplateManager {
         try {
             Rectangle bounds = element.getRect();
             
-            byte[] fullScreenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            byte[] fullScreenshot = ScreenshotProvider.forDriver(driver).getScreenshotBytes();
             BufferedImage fullImage = ImageIO.read(new ByteArrayInputStream(fullScreenshot));
             
             // Ensure bounds are within image
@@ -270,14 +283,16 @@ public class AutoTemplateManager {
                         // Add to visual index
                         visualIndex.addTemplate(imagePath.toString(), elementName, image);
 
-                        // Create metadata if not exists
+                        // Create metadata if not exists (manual images are cut from reference device screenshots,
+                        // not from the device running now)
                         String metadataPath = imagePath.toString().replace(".png", ".json").replace(".jpg", ".json");
                         if (!Files.exists(Paths.get(metadataPath))) {
-                            org.openqa.selenium.Dimension screenSize = driver.manage().window().getSize();
-                            java.awt.Dimension awtScreenSize = new java.awt.Dimension(screenSize.width, screenSize.height);
-                            TemplateMetadata metadata = TemplateMetadata.createFromImage(
-                                imagePath.toString(), image, elementName, "Manual", null, awtScreenSize
-                            );
+                            TemplateMetadata.CaptureGeometry reference = TemplateMetadata.CaptureGeometry.reference();
+                            java.awt.Dimension referenceScreenSize = new java.awt.Dimension(reference.screenWidth, reference.screenHeight);
+                            TemplateMetadataRegistry.register(TemplateMetadata.createFromImage(
+                                imagePath.toString(), image, elementName, "Manual", null, referenceScreenSize,
+                                reference.density
+                            ));
                         }
 
                         log.info("Indexed manual template: {}", imagePath.getFileName());
@@ -375,7 +390,7 @@ public class AutoTemplateManager {
         } catch (Exception e) {
             // Fall back to cropping from full screenshot
             Rectangle bounds = element.getRect();
-            byte[] fullScreenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            byte[] fullScreenshot = ScreenshotProvider.forDriver(driver).getScreenshotBytes();
             BufferedImage fullImage = ImageIO.read(new ByteArrayInputStream(fullScreenshot));
 
             int x = Math.max(0, bounds.x);
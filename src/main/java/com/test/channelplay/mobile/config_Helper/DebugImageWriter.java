@@ -0,0 +1,211 @@
+package com.test.channelplay.mobile.config_Helper;
+
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfInt;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous sink for debug match images
+ *
+ * The matching thread only copies the frame and queues it; colour conversion, annotation and
+ * encoding happen on a dedicated writer thread. The queue is bounded (template.debug.queue.size):
+ * when it is full the oldest pending image is dropped so lookups never wait for disk.
+ * Images are encoded as PNG, JPEG or WebP (template.debug.image.format / .quality).
+ * Each written image is appended to the run's match index for the debug viewer.
+ *
+ * Usage:
+ *   DebugImageWriter.submit(path, screenMat.clone(), image -> Imgproc.rectangle(image, ...));
+ *   DebugImageWriter.close();  // at scenario end: writes everything still queued
+ */
+public class DebugImageWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(DebugImageWriter.class);
+
+    /**
+     * Draws annotations on a BGR copy of the frame (runs on the writer thread)
+     */
+    public interface Annotator {
+        void annotate(Mat image);
+    }
+
+    private static final long CLOSE_TIMEOUT_MS = 30000;
+
+    private static Worker worker;  // Guarded by the class lock
+    private static final AtomicInteger inFlight = new AtomicInteger();
+
+    private static final AtomicLong written = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+
+    /**
+     * Queue a debug image for annotation and writing
+     * @param path Target path (the extension is replaced to match the configured format)
+     * @param image Frame to write; ownership passes to the writer, which releases it
+     * @param annotator Drawing applied on the writer thread (can be null)
+     */
+    public static synchronized void submit(String path, Mat image, Annotator annotator) {
+        Job job = new Job(withFormatExtension(path), image, annotator);
+        if (worker == null) {
+            worker = new Worker(TemplateConfig.getDebugQueueSize());
+        }
+
+        inFlight.incrementAndGet();
+        while (!worker.queue.offer(job)) {
+            // Drop-oldest: the newest images are the most useful when a run is producing them faster than disk
+            Job oldest = worker.queue.poll();
+            if (oldest != null) {
+                oldest.image.release();
+                inFlight.decrementAndGet();
+                dropped.incrementAndGet();
+                log.debug("Debug image queue full, dropped: {}", oldest.path);
+            }
+        }
+    }
+
+    /**
+     * Wait until every queued image has been written, then stop the writer thread
+     * (a later submit starts a new one)
+     */
+    public static void close() {
+        Worker current;
+        synchronized (DebugImageWriter.class) {
+            current = worker;
+            if (current == null) {
+                return;
+            }
+            worker = null;
+            current.closing = true;  // Writer exits once its queue is empty
+        }
+
+        try {
+            current.thread.join(CLOSE_TIMEOUT_MS);
+            if (current.thread.isAlive()) {
+                log.warn("Debug image writer did not finish within {}ms ({} images pending)", CLOSE_TIMEOUT_MS, inFlight.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logStats();
+    }
+
+    /**
+     * Log writer statistics
+     */
+    public static void logStats() {
+        log.info("Debug image writer: {} written, {} dropped (queue full), {} failed, {} pending",
+                 written.get(), dropped.get(), failed.get(), inFlight.get());
+    }
+
+    /**
+     * Writer thread with its own queue (a closed worker finishes its queue while a new one may start)
+     */
+    private static class Worker {
+        final BlockingQueue<Job> queue;
+        final Thread thread;
+        volatile boolean closing;
+
+        Worker(int capacity) {
+            queue = new ArrayBlockingQueue<>(capacity);
+            thread = new Thread(this::drain, "debug-image-writer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void drain() {
+            while (true) {
+                Job job;
+                try {
+                    job = queue.poll(200, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (job == null) {
+                    if (closing) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    write(job);
+                } finally {
+                    job.image.release();
+                    inFlight.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private static void write(Job job) {
+        try (MatArena arena = MatArena.open("DebugImageWriter")) {
+            Mat image = job.image;
+
+            // Ensure image is in BGR format (3 channels) for coloured annotations and imwrite
+            if (image.channels() == 1) {
+                Mat colorImage = arena.newMat();
+                Imgproc.cvtColor(image, colorImage, Imgproc.COLOR_GRAY2BGR);
+                image = colorImage;
+            } else if (image.channels() == 4) {
+                Mat bgrImage = arena.newMat();
+                Imgproc.cvtColor(image, bgrImage, Imgproc.COLOR_BGRA2BGR);
+                image = bgrImage;
+            }
+
+            if (job.annotator != null) {
+                job.annotator.annotate(image);
+            }
+
+            File debugFile = new File(job.path);
+            debugFile.getParentFile().mkdirs();
+            MatOfInt params = arena.track(encodeParams());
+            if (Imgcodecs.imwrite(debugFile.getAbsolutePath(), image, params)) {
+                written.incrementAndGet();
+                DebugMatchesViewerGenerator.recordMatch(debugFile);
+                log.debug("Debug image saved: {}", debugFile.getAbsolutePath());
+            } else {
+                failed.incrementAndGet();
+                log.error("FAILED to save debug image: {} (imwrite returned false)", debugFile.getAbsolutePath());
+            }
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.warn("Failed to write debug image {}: {}", job.path, e.getMessage());
+        }
+    }
+
+    private static MatOfInt encodeParams() {
+        int quality = TemplateConfig.getDebugImageQuality();
+        switch (TemplateConfig.getDebugImageFormat()) {
+            case "jpg":
+                return new MatOfInt(Imgcodecs.IMWRITE_JPEG_QUALITY, quality);
+            case "webp":
+                return new MatOfInt(Imgcodecs.IMWRITE_WEBP_QUALITY, Math.max(1, quality));
+            default:
+                return new MatOfInt();  // PNG is lossless, default compression
+        }
+    }
+
+    private static String withFormatExtension(String path) {
+        return path.replaceAll("\\.[^./\\\\]+$", "") + "." + TemplateConfig.getDebugImageFormat();
+    }
+
+    private static class Job {
+        final String path;
+        final Mat image;
+        final Annotator annotator;
+
+        Job(String path, Mat image, Annotator annotator) {
+            this.path = path;
+            this.image = image;
+            this.annotator = annotator;
+        }
+    }
+}
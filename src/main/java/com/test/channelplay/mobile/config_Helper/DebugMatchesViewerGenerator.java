@@ -7,21 +7,30 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Generates an HTML viewer for debug match images
  *
- * Scans screenshots/debug_matches folder and creates a dark-themed
- * HTML viewer with filtering, stats, and fullscreen image viewing.
+ * Creates a dark-themed HTML viewer with filtering, stats, and fullscreen image viewing.
+ *
+ * DebugImageWriter appends one JSON line per written image to the run's index
+ * (screenshots/debug_matches_metadata/debug_matches_<run>.jsonl). generate() appends only the
+ * records indexed since its last call to debug_matches_data.js, which the viewer loads with a
+ * script tag (works with file://), so the folder is never re-scanned.
  *
  * Usage:
  *   DebugMatchesViewerGenerator.generate("screenshots/debug_matches");
@@ -30,6 +39,15 @@ public class DebugMatchesViewerGenerator {
 
     private static final Logger log = LoggerFactory.getLogger(DebugMatchesViewerGenerator.class);
     private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static final Gson lineGson = new Gson();  // Compact: one record per line
+
+    private static final String METADATA_FOLDER = "screenshots/debug_matches_metadata";
+    private static final String DATA_SCRIPT = "debug_matches_data.js";
+    private static final String RUN_TIMESTAMP = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+
+    // Bytes of the current run's index already in the data script (guarded by the class lock)
+    private static long renderedOffset;
+    private static boolean retentionChecked;
 
     /**
      * Match data model
@@ -113,7 +131,7 @@ public class DebugMatchesViewerGenerator {
         }
 
         // Extract timestamp
-        Pattern tsPattern = Pattern.compile("_(\\d{13})\\.png$");
+        Pattern tsPattern = Pattern.compile("_(\\d{13})\\.(png|jpg|webp)$");
         Matcher tsMatcher = tsPattern.matcher(filename);
         String timestamp = "00:00:00.000";
         if (tsMatcher.find()) {
@@ -135,83 +153,62 @@ public class DebugMatchesViewerGenerator {
     }
 
     /**
-     * Scan debug matches folder and collect all match data
+     * Append one match record to the current run's index (called by DebugImageWriter after each image is written)
+     * @param imageFile Debug image that was just written under the debug folder
      */
-    private static List<MatchData> scanDebugFolder(String debugFolderPath) throws IOException {
-        List<MatchData> matchData = new ArrayList<>();
-        Path debugPath = Paths.get(debugFolderPath);
-
-        if (!Files.exists(debugPath)) {
-            log.warn("Debug folder not found: {}", debugFolderPath);
-            return matchData;
+    public static synchronized void recordMatch(File imageFile) {
+        try {
+            Path root = Paths.get(TemplateConfig.getDebugFolder()).toAbsolutePath().normalize();
+            Path image = imageFile.toPath().toAbsolutePath().normalize();
+            Path relative = image.startsWith(root) ? root.relativize(image) : image.getFileName();
+
+            // <scenario>/<success|failures>/<file> when organized by scenario, otherwise <success|failures>/<file>
+            String scenarioName = relative.getNameCount() >= 3 ? relative.getName(0).toString() : "default";
+            String relativePath = relative.toString().replace('\\', '/');
+            MatchData match = parseFilename(image.getFileName().toString(), relativePath, scenarioName);
+
+            Path indexPath = Paths.get(METADATA_FOLDER);
+            Files.createDirectories(indexPath);
+            Files.write(indexPath.resolve(runIndexFilename()), (lineGson.toJson(match) + "\n").getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (Exception e) {
+            log.warn("Failed to index debug image {}: {}", imageFile, e.getMessage());
         }
-
-        // Scan all scenario folders
-        Files.list(debugPath)
-            .filter(Files::isDirectory)
-            .forEach(scenarioFolder -> {
-                String scenarioName = scenarioFolder.getFileName().toString();
-
-                // Scan success and failures folders
-                for (String subfolder : Arrays.asList("success", "failures")) {
-                    Path subfolderPath = scenarioFolder.resolve(subfolder);
-                    if (!Files.exists(subfolderPath)) continue;
-
-                    try {
-                        Files.list(subfolderPath)
-                            .filter(p -> p.toString().toLowerCase().endsWith(".png"))
-                            .forEach(imgFile -> {
-                                String filename = imgFile.getFileName().toString();
-                                String relativePath = scenarioName + "/" + subfolder + "/" + filename;
-                                MatchData match = parseFilename(filename, relativePath, scenarioName);
-                                matchData.add(match);
-                            });
-                    } catch (IOException e) {
-                        log.error("Error scanning subfolder: {}", subfolderPath, e);
-                    }
-                }
-            });
-
-        return matchData;
     }
 
     /**
-     * Generate HTML viewer with timestamped JSON data files
+     * Update the HTML viewer with match records indexed since the last call
+     *
+     * Only the new part of the current run's index is read and appended to the data script, so the
+     * cost per call follows the number of new images rather than the accumulated history. The data
+     * script is rebuilt from all index files when it is missing (e.g. after 'mvn clean') or when
+     * retention has removed old runs.
      */
-    public static void generate(String debugFolderPath) {
+    public static synchronized void generate(String debugFolderPath) {
         try {
             log.info("Generating debug matches viewer for: {}", debugFolderPath);
 
-            // Scan folder
-            List<MatchData> matchData = scanDebugFolder(debugFolderPath);
-
-            if (matchData.isEmpty()) {
-                log.warn("No debug images found in: {}", debugFolderPath);
-                // Still generate HTML even if no current images (will load historical data)
-            } else {
-                log.info("Found {} debug images", matchData.size());
-
-                // Calculate stats
-                long opencvCount = matchData.stream().filter(m -> "opencv".equals(m.method)).count();
-                long ocrCount = matchData.stream().filter(m -> "ocr".equals(m.method)).count();
-                long successCount = matchData.stream().filter(m -> "success".equals(m.status)).count();
-
-                log.info("  OpenCV: {} | OCR: {}", opencvCount, ocrCount);
-                log.info("  Success: {} | Failures: {}", successCount, matchData.size() - successCount);
+            Path metadataPath = Paths.get(METADATA_FOLDER);
+            Files.createDirectories(metadataPath);
+            Files.createDirectories(Paths.get(debugFolderPath));
 
-                // Save match data to timestamped JSON file (persists for 7 days)
-                saveMatchDataJson(matchData);
+            // Retention only needs checking once per run
+            boolean expired = false;
+            if (!retentionChecked) {
+                expired = cleanupOldJsonFiles();
+                retentionChecked = true;
             }
 
-            // Clean up old JSON files (older than 7 days)
-            cleanupOldJsonFiles();
-
-            // Generate HTML viewer (loads data from all JSON files)
-            String html = generateHtml();
+            Path dataPath = Paths.get(debugFolderPath, DATA_SCRIPT);
+            if (expired || !Files.exists(dataPath)) {
+                rebuildDataScript(metadataPath, dataPath);
+            } else {
+                appendNewMatches(metadataPath, dataPath);
+            }
 
-            // Save HTML file
+            // Save HTML file (fixed size - the match data lives in the data script)
             Path outputPath = Paths.get(debugFolderPath, "debug_matches_viewer.html");
-            Files.write(outputPath, html.getBytes("UTF-8"));
+            Files.write(outputPath, generateHtml().getBytes(StandardCharsets.UTF_8));
 
             log.info("✅ Debug viewer generated: {}", outputPath.toAbsolutePath());
 
@@ -221,77 +218,126 @@ public class DebugMatchesViewerGenerator {
     }
 
     /**
-     * Save match data to timestamped JSON file and update manifest
+     * Append the records indexed since the last call to the data script
      */
-    private static void saveMatchDataJson(List<MatchData> matchData) {
-        try {
-            // Create metadata folder (excluded from maven clean)
-            String metadataFolder = "screenshots/debug_matches_metadata";
-            Path metadataPath = Paths.get(metadataFolder);
-            if (!Files.exists(metadataPath)) {
-                Files.createDirectories(metadataPath);
-            }
-
-            // Generate timestamped filename
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
-            String jsonFilename = String.format("debug_matches_%s.json", timestamp);
-            Path jsonPath = metadataPath.resolve(jsonFilename);
-
-            // Save JSON
-            String json = gson.toJson(matchData);
-            Files.write(jsonPath, json.getBytes("UTF-8"));
-
-            log.info("Match data saved to: {}", jsonPath.toAbsolutePath());
+    private static void appendNewMatches(Path metadataPath, Path dataPath) throws IOException {
+        Path indexPath = metadataPath.resolve(runIndexFilename());
+        if (!Files.exists(indexPath) || Files.size(indexPath) <= renderedOffset) {
+            log.info("No new debug images since last viewer update");
+            return;
+        }
 
-            // Update manifest file
-            updateManifest(metadataPath);
+        List<MatchData> matchData = new ArrayList<>();
+        try (SeekableByteChannel channel = Files.newByteChannel(indexPath, StandardOpenOption.READ)) {
+            channel.position(renderedOffset);
+            ByteBuffer buffer = ByteBuffer.allocate((int) (channel.size() - renderedOffset));
+            while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                // Keep reading until the buffer holds everything appended since the last call
+            }
+            renderedOffset += readRecords(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8), matchData);
+        }
 
-        } catch (Exception e) {
-            log.warn("Failed to save match data JSON: {}", e.getMessage());
+        if (matchData.isEmpty()) {
+            return;
         }
+        logSummary(matchData);
+        Files.write(dataPath, runLine(RUN_TIMESTAMP, matchData).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
     }
 
     /**
-     * Update manifest file with list of all JSON files
+     * Rewrite the data script from every index file still within retention (one line per run, oldest first)
      */
-    private static void updateManifest(Path metadataPath) {
-        try {
-            // Get all JSON files (except manifest itself)
-            List<String> jsonFiles = Files.list(metadataPath)
-                .filter(p -> p.toString().endsWith(".json"))
-                .filter(p -> !p.getFileName().toString().equals("manifest.json"))
-                .map(p -> p.getFileName().toString())
+    private static void rebuildDataScript(Path metadataPath, Path dataPath) throws IOException {
+        List<Path> indexFiles;
+        try (Stream<Path> files = Files.list(metadataPath)) {
+            indexFiles = files
+                .filter(p -> p.getFileName().toString().startsWith("debug_matches_"))
+                .filter(p -> p.toString().endsWith(".jsonl") || p.toString().endsWith(".json"))
                 .sorted()
                 .collect(Collectors.toList());
+        }
 
-            // Create manifest with file list and metadata
-            Map<String, Object> manifest = new HashMap<>();
-            manifest.put("files", jsonFiles);
-            manifest.put("count", jsonFiles.size());
-            manifest.put("lastUpdated", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+        StringBuilder script = new StringBuilder();
+        int totalMatches = 0;
+        for (Path indexFile : indexFiles) {
+            String filename = indexFile.getFileName().toString();
+            try {
+                String content = new String(Files.readAllBytes(indexFile), StandardCharsets.UTF_8);
+                List<MatchData> matchData = new ArrayList<>();
+                if (filename.endsWith(".jsonl")) {
+                    int consumed = readRecords(content, matchData);
+                    if (filename.equals(runIndexFilename())) {
+                        renderedOffset = consumed;
+                    }
+                } else {
+                    // Legacy per-scenario snapshot (JSON array)
+                    matchData.addAll(Arrays.asList(gson.fromJson(content, MatchData[].class)));
+                }
 
-            // Save manifest
-            Path manifestPath = metadataPath.resolve("manifest.json");
-            String manifestJson = gson.toJson(manifest);
-            Files.write(manifestPath, manifestJson.getBytes("UTF-8"));
+                if (!matchData.isEmpty()) {
+                    // Run timestamp from filename (format: debug_matches_2025-10-18_14-38-26.jsonl)
+                    String runTimestamp = filename.replace("debug_matches_", "").replaceAll("\\.jsonl?$", "");
+                    script.append(runLine(runTimestamp, matchData));
+                    totalMatches += matchData.size();
+                }
+            } catch (Exception e) {
+                log.warn("Failed to load {}: {}", filename, e.getMessage());
+            }
+        }
 
-            log.debug("Manifest updated with {} files", jsonFiles.size());
+        Files.write(dataPath, script.toString().getBytes(StandardCharsets.UTF_8));
+        log.info("Debug viewer data rebuilt: {} matches from {} index files", totalMatches, indexFiles.size());
+    }
 
-        } catch (Exception e) {
-            log.warn("Failed to update manifest: {}", e.getMessage());
+    /**
+     * Parse complete JSON lines into records
+     * @return Number of bytes consumed (a trailing partial line is left for the next call)
+     */
+    private static int readRecords(String content, List<MatchData> matchData) {
+        int end = content.lastIndexOf('\n') + 1;
+        for (String line : content.substring(0, end).split("\n")) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                matchData.add(lineGson.fromJson(line, MatchData.class));
+            } catch (Exception e) {
+                log.debug("Skipping malformed index line: {}", line);
+            }
         }
+        return content.substring(0, end).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static String runLine(String runTimestamp, List<MatchData> matchData) {
+        return String.format("debugMatchRun(%s, %s);\n", lineGson.toJson(runTimestamp), lineGson.toJson(matchData));
+    }
+
+    private static String runIndexFilename() {
+        return String.format("debug_matches_%s.jsonl", RUN_TIMESTAMP);
+    }
+
+    private static void logSummary(List<MatchData> matchData) {
+        long opencvCount = matchData.stream().filter(m -> "opencv".equals(m.method)).count();
+        long ocrCount = matchData.stream().filter(m -> "ocr".equals(m.method)).count();
+        long successCount = matchData.stream().filter(m -> "success".equals(m.status)).count();
+
+        log.info("Found {} new debug images", matchData.size());
+        log.info("  OpenCV: {} | OCR: {}", opencvCount, ocrCount);
+        log.info("  Success: {} | Failures: {}", successCount, matchData.size() - successCount);
     }
 
     /**
-     * Clean up JSON files older than configured days (default 7)
+     * Clean up index files older than configured days (default 7)
+     * @return true if any file was deleted
      */
-    private static void cleanupOldJsonFiles() {
+    private static boolean cleanupOldJsonFiles() {
+        boolean filesDeleted = false;
         try {
-            String metadataFolder = "screenshots/debug_matches_metadata";
-            Path metadataPath = Paths.get(metadataFolder);
+            Path metadataPath = Paths.get(METADATA_FOLDER);
 
             if (!Files.exists(metadataPath)) {
-                return;
+                return false;
             }
 
             // Get cleanup age from config (use preprod prefix)
@@ -307,19 +353,20 @@ public class DebugMatchesViewerGenerator {
 
             long cutoffTime = System.currentTimeMillis() - (maxAgeDays * 24L * 60 * 60 * 1000);
 
-            // Delete old JSON files (but not manifest)
-            boolean filesDeleted = false;
-            List<Path> filesToDelete = Files.list(metadataPath)
-                .filter(p -> p.toString().endsWith(".json"))
-                .filter(p -> !p.getFileName().toString().equals("manifest.json"))
-                .filter(p -> {
-                    try {
-                        return Files.getLastModifiedTime(p).toMillis() < cutoffTime;
-                    } catch (IOException e) {
-                        return false;
-                    }
-                })
-                .collect(Collectors.toList());
+            // Delete old index files (JSON lines and legacy JSON snapshots)
+            List<Path> filesToDelete;
+            try (Stream<Path> files = Files.list(metadataPath)) {
+                filesToDelete = files
+                    .filter(p -> p.toString().endsWith(".jsonl") || p.toString().endsWith(".json"))
+                    .filter(p -> {
+                        try {
+                            return Files.getLastModifiedTime(p).toMillis() < cutoffTime;
+                        } catch (IOException e) {
+                            return false;
+                        }
+                    })
+                    .collect(Collectors.toList());
+            }
 
             for (Path p : filesToDelete) {
                 try {
@@ -331,106 +378,18 @@ public class DebugMatchesViewerGenerator {
                 }
             }
 
-            // Update manifest if any files were deleted
-            if (filesDeleted) {
-                updateManifest(metadataPath);
-            }
-
         } catch (Exception e) {
             log.warn("Failed to cleanup old JSON files: {}", e.getMessage());
         }
+        return filesDeleted;
     }
 
     /**
-     * Generate HTML content with embedded JSON data from all metadata files
+     * Generate HTML content; match data is loaded from the data script next to it
      */
     private static String generateHtml() {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-
-        // Load all match data from JSON files in metadata folder, grouped by test run
-        List<Map<String, Object>> testRunGroups = new ArrayList<>();
-        String metadataFolder = "screenshots/debug_matches_metadata";
-        Path metadataPath = Paths.get(metadataFolder);
-        String debugFolder = "screenshots/debug_matches";
-        int totalMatches = 0;
-        long sevenDaysAgoMillis = System.currentTimeMillis() - (7L * 24 * 60 * 60 * 1000);
-
-        try {
-            if (Files.exists(metadataPath)) {
-                // Load manifest to get file list
-                Path manifestPath = metadataPath.resolve("manifest.json");
-                if (Files.exists(manifestPath)) {
-                    String manifestContent = new String(Files.readAllBytes(manifestPath), "UTF-8");
-                    Map<String, Object> manifest = gson.fromJson(manifestContent, Map.class);
-                    List<String> files = (List<String>) manifest.get("files");
-
-                    if (files != null) {
-                        // Sort files in reverse chronological order (latest first)
-                        List<String> sortedFiles = new ArrayList<>(files);
-                        sortedFiles.sort(Collections.reverseOrder());
-
-                        for (String filename : sortedFiles) {
-                            try {
-                                Path jsonPath = metadataPath.resolve(filename);
-                                if (Files.exists(jsonPath)) {
-                                    String jsonContent = new String(Files.readAllBytes(jsonPath), "UTF-8");
-                                    MatchData[] data = gson.fromJson(jsonContent, MatchData[].class);
-
-                                    // Filter out matches where image was deleted more than 7 days ago
-                                    List<MatchData> validMatches = new ArrayList<>();
-                                    for (MatchData match : data) {
-                                        Path imagePath = Paths.get(debugFolder, match.path);
-                                        boolean imageExists = Files.exists(imagePath);
-
-                                        // Include match if:
-                                        // 1. Image exists, OR
-                                        // 2. Image doesn't exist but was deleted within last 7 days
-                                        if (imageExists) {
-                                            validMatches.add(match);
-                                        } else {
-                                            // Check if JSON file is newer than 7 days
-                                            long jsonFileAge = Files.getLastModifiedTime(jsonPath).toMillis();
-                                            if (jsonFileAge >= sevenDaysAgoMillis) {
-                                                validMatches.add(match);
-                                            }
-                                        }
-                                    }
-
-                                    if (!validMatches.isEmpty()) {
-                                        // Extract timestamp from filename (format: debug_matches_2025-10-18_14-38-26.json)
-                                        String testRunTimestamp = filename.replace("debug_matches_", "").replace(".json", "");
-
-                                        Map<String, Object> testRun = new HashMap<>();
-                                        testRun.put("timestamp", testRunTimestamp);
-                                        testRun.put("matches", validMatches);
-                                        testRun.put("count", validMatches.size());
-                                        testRunGroups.add(testRun);
-                                        totalMatches += validMatches.size();
-
-                                        log.debug("Loaded {} matches from {} (filtered from {} total)",
-                                            validMatches.size(), filename, data.length);
-                                    }
-                                }
-                            } catch (Exception e) {
-                                log.warn("Failed to load {}: {}", filename, e.getMessage());
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.warn("Failed to load historical match data: {}", e.getMessage());
-        }
-
-        // Convert grouped data to JSON for embedding
-        String testRunGroupsJson = gson.toJson(testRunGroups);
-
-        String dataInfo = testRunGroups.isEmpty() ?
-            "No historical data" :
-            String.format("%d test runs, %d matches from last 7 days", testRunGroups.size(), totalMatches);
-
-        // Generate HTML with embedded data
-        return String.format(HTML_TEMPLATE_EMBEDDED, timestamp, dataInfo, testRunGroupsJson);
+        return String.format(HTML_TEMPLATE_EMBEDDED, timestamp, DATA_SCRIPT);
     }
 
     /**
@@ -664,7 +623,7 @@ public class DebugMatchesViewerGenerator {
         "    <header>\n" +
         "      <h1>🔍 Debug Matches Viewer (Last 7 Days)</h1>\n" +
         "      <div class=\"scenario-info\">\n" +
-        "        <span>%s</span>\n" +
+        "        <span id=\"data-info\">No historical data</span>\n" +
         "        <span>Generated: %s</span>\n" +
         "      </div>\n" +
         "    </header>\n" +
@@ -709,7 +668,28 @@ public class DebugMatchesViewerGenerator {
         "    </div>\n" +
         "  </div>\n" +
         "  <script>\n" +
-        "    const testRunGroups = %s;\n" +
+        "    // Runs are merged by timestamp; each viewer update appends one debugMatchRun() line to the data script\n" +
+        "    const testRunGroups = [];\n" +
+        "    const runsByTimestamp = {};\n" +
+        "    function debugMatchRun(timestamp, matches) {\n" +
+        "      let run = runsByTimestamp[timestamp];\n" +
+        "      if (!run) {\n" +
+        "        run = { timestamp: timestamp, matches: [], count: 0 };\n" +
+        "        runsByTimestamp[timestamp] = run;\n" +
+        "        testRunGroups.push(run);\n" +
+        "      }\n" +
+        "      matches.forEach(match => run.matches.push(match));\n" +
+        "      run.count = run.matches.length;\n" +
+        "    }\n" +
+        "  </script>\n" +
+        "  <script src=\"%s\"></script>\n" +
+        "  <script>\n" +
+        "    // Latest run first\n" +
+        "    testRunGroups.sort((a, b) => b.timestamp.localeCompare(a.timestamp));\n" +
+        "    if (testRunGroups.length > 0) {\n" +
+        "      const matchCount = testRunGroups.reduce((sum, run) => sum + run.count, 0);\n" +
+        "      document.getElementById('data-info').textContent = `${testRunGroups.length} test runs, ${matchCount} matches`;\n" +
+        "    }\n" +
         "    let currentFilters = { success: true, failure: true, opencv: true, ocr: true };\n" +
         "\n" +
         "    function renderAccordion(filters) {\n" +
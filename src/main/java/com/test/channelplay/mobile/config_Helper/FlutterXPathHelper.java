@@ -1,17 +1,23 @@
 package com.test.channelplay.mobile.config_Helper;
 
-import com.test.channelplay.utils.CommonUtils;
+import com.test.channelplay.utils.MobileDriverManager;
 import io.appium.java_client.AppiumBy;
 import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 
 public class FlutterXPathHelper {
     
     private static final Logger log = LoggerFactory.getLogger(FlutterXPathHelper.class);
-    CommonUtils commonUtils = new CommonUtils();
+    private static final By CAMERA_SWITCH_BUTTON = AppiumBy.xpath("//android.widget.ImageView[@content-desc='Switch camera']");
     private final AppiumDriver driver;
     private AIElementFinder aiFinder;
     private final AutoTemplateManager templateManager;
@@ -49,16 +55,9 @@ public class FlutterXPathHelper {
             "//*[contains(@text,'" + text + "') or contains(@content-desc,'" + text + "')]"
         );
 
-        for (String xpath : strategies) {
-            try {
-                WebElement element = driver.findElement(AppiumBy.xpath(xpath));
-                if (element != null && element.isDisplayed()) {
-                    log.info("Found element with text '{}' using strategy: {}", text, xpath);
-                    return element;
-                }
-            } catch (Exception e) {
-                // Try next strategy
-            }
+        WebElement element = findFirstDisplayed(strategies, "element with text '" + text + "'");
+        if (element != null) {
+            return element;
         }
         throw new RuntimeException("Could not find element with text: " + text);
     }
@@ -73,16 +72,9 @@ public class FlutterXPathHelper {
             "//*[*[@text='" + labelText + "']]//*[@clickable='true' or contains(@class,'EditText')]"
         );
 
-        for (String xpath : strategies) {
-            try {
-                WebElement element = driver.findElement(AppiumBy.xpath(xpath));
-                if (element != null && element.isDisplayed()) {
-                    log.info("Found input after label '{}' using strategy: {}", labelText, xpath);
-                    return element;
-                }
-            } catch (Exception e) {
-                // Try next strategy
-            }
+        WebElement element = findFirstDisplayed(strategies, "input after label '" + labelText + "'");
+        if (element != null) {
+            return element;
         }
         throw new RuntimeException("Could not find input after label: " + labelText);
     }
@@ -97,16 +89,9 @@ public class FlutterXPathHelper {
             "//*[@clickable='true' and (contains(@text,'" + text + "') or contains(@content-desc,'" + text + "'))]"
         );
 
-        for (String xpath : strategies) {
-            try {
-                WebElement element = driver.findElement(AppiumBy.xpath(xpath));
-                if (element != null && element.isDisplayed()) {
-                    log.info("Found button after text '{}' using strategy: {}", text, xpath);
-                    return element;
-                }
-            } catch (Exception e) {
-                // Try next strategy
-            }
+        WebElement element = findFirstDisplayed(strategies, "button after text '" + text + "'");
+        if (element != null) {
+            return element;
         }
         throw new RuntimeException("Could not find button after text: " + text);
     }
@@ -155,16 +140,9 @@ public class FlutterXPathHelper {
             "//*[@content-desc='" + partialText + "' and @clickable='true']"
         );
 
-        for (String xpath : strategies) {
-            try {
-                WebElement element = driver.findElement(AppiumBy.xpath(xpath));
-                if (element != null && element.isDisplayed()) {
-                    log.info("Found clickable element with text '{}' using strategy: {}", partialText, xpath);
-                    return element;
-                }
-            } catch (Exception e) {
-                // Try next strategy
-            }
+        WebElement element = findFirstDisplayed(strategies, "clickable element with text '" + partialText + "'");
+        if (element != null) {
+            return element;
         }
         throw new RuntimeException("Could not find clickable element with text: " + partialText);
     }
@@ -323,26 +301,83 @@ public class FlutterXPathHelper {
     }
 
 
-    //  * Helper method -> XPath strategies for smartFindElementWithAI()
-    private WebElement findXPathStrategies(String fieldName, String[] xpathStrategies) {
-        for (int i = 0; i < xpathStrategies.length; i++) {
-            String xpath = xpathStrategies[i];
-            try {
-                WebElement element = driver.findElement(AppiumBy.xpath(xpath));
-                if (element != null && element.isDisplayed()) {
-                    log.info("{} field found with XPath strategy {}: {}", fieldName, (i+1), xpath);
-                    // Note: Auto-capture for XPath elements is handled by AutoTemplateManager
-                    // It will be saved to templates/screens folder for XPath-found elements
-                    templateManager.autoCapture(fieldName, element);
+    //  * Helper method -> First strategy whose element is displayed, evaluated locally on one page source snapshot
+    //  Only the winning XPath goes to the device; on a miss, a snapshot older than the UI settle quiet period
+    //  (which may predate an animation) is re-checked once on a new one
+    private WebElement findFirstDisplayed(List<String> strategies, String description) {
+        PageSourceSnapshot snapshot = PageSourceSnapshot.current(driver);
+        int index = -1;
+        if (snapshot.isParsed()) {
+            index = snapshot.firstMatching(strategies, 0);
+            if (index < 0 && snapshot.getAgeMs() > TemplateConfig.getUiSettleQuietMs()) {
+                snapshot = PageSourceSnapshot.refresh(driver);
+                index = snapshot.firstMatching(strategies, 0);
+            }
+            if (index < 0) {
+                log.debug("No XPath strategy matched {} in page source", description);
+                return null;
+            }
+        }
+
+        // Every lookup below targets an element that is already on screen (or is the unparsed-source fallback),
+        // so a miss must fail immediately instead of waiting out the implicit wait
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        try {
+            if (!snapshot.isParsed()) {
+                return findFirstDisplayedOnDevice(strategies, description);
+            }
+            while (index >= 0) {
+                String xpath = strategies.get(index);
+                WebElement element = findDisplayedOnDevice(xpath);
+                if (element != null) {
+                    log.info("Found {} with XPath strategy {}: {}", description, (index + 1), xpath);
                     return element;
                 }
-            } catch (Exception e) {
-                log.debug("XPath strategy {} failed for {}: {}", (i+1), fieldName, xpath);
+                log.debug("XPath strategy {} matched locally but not on device for {}: {}", (index + 1), description, xpath);
+                index = snapshot.firstMatching(strategies, index + 1);
             }
+            return null;
+        } finally {
+            driver.manage().timeouts().implicitlyWait(MobileDriverManager.IMPLICIT_WAIT);
+        }
+    }
+
+    private WebElement findFirstDisplayedOnDevice(List<String> strategies, String description) {
+        for (int i = 0; i < strategies.size(); i++) {
+            WebElement element = findDisplayedOnDevice(strategies.get(i));
+            if (element != null) {
+                log.info("Found {} with XPath strategy {}: {}", description, (i + 1), strategies.get(i));
+                return element;
+            }
+            log.debug("XPath strategy {} failed for {}: {}", (i + 1), description, strategies.get(i));
         }
         return null;
     }
 
+    private WebElement findDisplayedOnDevice(String xpath) {
+        try {
+            WebElement element = driver.findElement(AppiumBy.xpath(xpath));
+            if (element != null && element.isDisplayed()) {
+                return element;
+            }
+        } catch (Exception e) {
+            // Not on screen
+        }
+        return null;
+    }
+
+
+    //  * Helper method -> XPath strategies for smartFindElementWithAI()
+    private WebElement findXPathStrategies(String fieldName, String[] xpathStrategies) {
+        WebElement element = findFirstDisplayed(Arrays.asList(xpathStrategies), fieldName + " field");
+        if (element != null) {
+            // Note: Auto-capture for XPath elements is handled by AutoTemplateManager
+            // It will be saved to templates/screens folder for XPath-found elements
+            templateManager.autoCapture(fieldName, element);
+        }
+        return element;
+    }
+
 
     //  * Helper method -> Perform action on element for smartFindElementWithAI()
     private boolean performAction(WebElement element, String action, String textToSend, String fieldName) {
@@ -361,22 +396,22 @@ public class FlutterXPathHelper {
                     return performCalendarDateClick(element, fieldName);
                 }
 
-                // Store page source before click to detect changes
-                String beforeClick = driver.getPageSource().hashCode() + "";
+                // Snapshot before click to detect changes (usually the one the lookup was evaluated on)
+                PageSourceSnapshot beforeClick = PageSourceSnapshot.current(driver);
                 element.click();
 
                 // Brief wait for any UI changes
-                Thread.sleep(500);
+                UiSettleDetector.waitForSettle(driver, 500);
 
                 // Check if click caused any UI change
-                String afterClick = driver.getPageSource().hashCode() + "";
+                int changedNodes = beforeClick.changedNodes(PageSourceSnapshot.refresh(driver));
 
-                if (beforeClick.equals(afterClick)) {
+                if (changedNodes == 0) {
                     log.warn("Click on {} did not cause any UI changes, might be wrong element", fieldName);
                     return false;  // Trigger AI fallback
                 }
 
-                log.info("Clicked {} successfully", fieldName);
+                log.info("Clicked {} successfully ({} nodes changed)", fieldName, changedNodes);
                 return true;
 
             } else if ("focus".equals(action)) {
@@ -465,7 +500,7 @@ public class FlutterXPathHelper {
             log.info("Clicked calendar date at coordinates: ({}, {})", centerX, centerY);
 
             // Wait for UI update
-            Thread.sleep(500);
+            UiSettleDetector.waitForSettle(driver, 500);
             return true;
 
         } catch (Exception e) {
@@ -509,23 +544,16 @@ public class FlutterXPathHelper {
             Thread.sleep(1000);  // Brief wait before clicking
             performTapAtCoordinates(shutterX, shutterY);
 
-            // Wait for camera to capture
-            Thread.sleep(2000);
-
-            // Check if we're still on camera screen (shutter click might have failed)
-            // If camera UI has specific elements, we can check for them
-            try {
-                // Try to find common camera UI elements to verify we're still on camera
-                driver.findElement(AppiumBy.xpath("//android.widget.ImageView[@content-desc='Switch camera']"));
-
+            // Wait for camera to capture - the camera UI closes once the photo is taken
+            // (the hierarchy does not change while capturing, so UI settle detection cannot be used here)
+            if (waitForCameraToClose(2000)) {
+                log.info("Camera shutter click successful - camera UI closed");
+            } else {
                 // Still on camera, try alternative coordinates
                 log.warn("First shutter click might have failed, trying alternative position");
                 shutterY = (int)(screenHeight * 0.91);  // Try slightly higher (91% instead of 91.3%)
                 performTapAtCoordinates(shutterX, shutterY);
-                Thread.sleep(1000);
-            } catch (Exception e) {
-                // Camera UI element not found - likely means photo was taken successfully
-                log.info("Camera shutter click successful - camera UI closed");
+                waitForCameraToClose(1000);
             }
 
             return true;
@@ -538,6 +566,24 @@ public class FlutterXPathHelper {
         }
     }
 
+    /**
+     * Wait until the camera UI (Switch camera button) is gone
+     * @param maxWaitMs Ceiling for the wait (ms)
+     * @return true if the camera UI closed within the ceiling
+     */
+    private boolean waitForCameraToClose(long maxWaitMs) {
+        // Absence is the expected outcome, so each check must not wait out the implicit wait
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        try {
+            return new WebDriverWait(driver, Duration.ofMillis(maxWaitMs), Duration.ofMillis(TemplateConfig.getUiSettlePollMs()))
+                    .until(ExpectedConditions.invisibilityOfElementLocated(CAMERA_SWITCH_BUTTON));
+        } catch (TimeoutException e) {
+            return false;
+        } finally {
+            driver.manage().timeouts().implicitlyWait(MobileDriverManager.IMPLICIT_WAIT);
+        }
+    }
+
     /**
      * Fallback method that tries multiple common shutter button positions
      */
@@ -668,7 +714,7 @@ public class FlutterXPathHelper {
         }
 
         log.info("{} field clicked with AI, finding focused element...", fieldName);
-        commonUtils.sleep(1000);
+        UiSettleDetector.waitForSettle(driver, 1000);
 
         WebElement focusedElement = findFocusedElement();
         if (focusedElement != null) {
@@ -1038,7 +1084,7 @@ public class FlutterXPathHelper {
                     org.openqa.selenium.interactions.PointerInput.MouseButton.LEFT.asArg()));
 
                 driver.perform(java.util.Arrays.asList(swipe));
-                Thread.sleep(500);
+                UiSettleDetector.waitForSettle(driver, 500);
             }
             log.info("Scrolled down {} times", scrollTimes);
         } catch (Exception e) {
@@ -1078,7 +1124,7 @@ public class FlutterXPathHelper {
                     org.openqa.selenium.interactions.PointerInput.MouseButton.LEFT.asArg()));
 
                 driver.perform(java.util.Arrays.asList(swipe));
-                Thread.sleep(500);
+                UiSettleDetector.waitForSettle(driver, 500);
             }
             log.info("Scrolled up {} times", scrollTimes);
         } catch (Exception e) {
@@ -1153,6 +1199,19 @@ public class FlutterXPathHelper {
         templateManager.keepTemplate(templatePath);
     }
 
+
+    //  ## Locate several template images on the current screen with one screenshot (e.g. all fields of a form)
+    //  Returns match centre per template path; templates not found are absent from the map
+    public java.util.Map<String, org.opencv.core.Point> locateTemplatesOnScreen(List<String> templateImages) {
+        java.util.Map<String, org.opencv.core.Point> locations = new java.util.LinkedHashMap<>();
+        getAIFinder().findElementsByImage(templateImages).forEach((templatePath, result) -> {
+            if (result != null && result.point != null) {
+                locations.put(templatePath, result.point);
+            }
+        });
+        return locations;
+    }
+
     
     //  Create dummy element for cases where AI performs the action directly
     /**
@@ -1161,8 +1220,7 @@ public class FlutterXPathHelper {
     private String tryVisualMatching(String fieldName) {
         try {
             // Take screenshot of current screen
-            byte[] screenshot = ((org.openqa.selenium.TakesScreenshot) driver)
-                    .getScreenshotAs(org.openqa.selenium.OutputType.BYTES);
+            byte[] screenshot = ScreenshotProvider.forDriver(driver).getScreenshotBytes();
             java.awt.image.BufferedImage currentScreen = javax.imageio.ImageIO.read(
                     new java.io.ByteArrayInputStream(screenshot)
             );
@@ -1174,13 +1232,14 @@ public class FlutterXPathHelper {
             if (matchedTemplate != null) {
                 log.info("Found template by visual matching for {}: {}", fieldName, matchedTemplate);
 
-                // Update metadata to record this successful match
-                TemplateMetadata metadata = TemplateMetadata.load(matchedTemplate);
-                if (metadata != null) {
+                // Update metadata to record this successful match (shared registry instance, so the
+                // write-behind flush cannot overwrite it with a stale copy)
+                TemplateMetadata metadata = TemplateMetadataRegistry.get(matchedTemplate);
+                synchronized (metadata) {
                     metadata.recordUsage(true);
                     // Add current field name as alias for future searches
                     metadata.aliases.add(fieldName.toLowerCase());
-                    metadata.save();
+                    metadata.persist();
                 }
 
                 return matchedTemplate;
@@ -0,0 +1,180 @@
+package com.test.channelplay.mobile.config_Helper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BK-tree over 64-bit hashes using Hamming distance (Long.bitCount(a ^ b))
+ *
+ * Radius queries only descend into children whose edge distance is within
+ * [d - radius, d + radius] of the current node, so lookups stay sub-linear as the
+ * template library grows. Several values may share one hash.
+ *
+ * Removal detaches the value but keeps the node for routing; the tree is rebuilt
+ * from live values once more than half of its nodes are empty.
+ *
+ * Thread-safe (all public methods are synchronized).
+ */
+public class HammingBKTree<T> {
+
+    private Node<T> root;
+    private int nodeCount;
+    private int emptyNodeCount;
+    private int size;
+
+    /**
+     * Add a value under the given hash
+     */
+    public synchronized void add(long hash, T value) {
+        if (root == null) {
+            root = new Node<>(hash);
+            root.values.add(value);
+            nodeCount = 1;
+            size = 1;
+            return;
+        }
+
+        Node<T> node = root;
+        while (true) {
+            int distance = distance(hash, node.hash);
+            if (distance == 0) {
+                if (node.values.isEmpty()) {
+                    emptyNodeCount--;
+                }
+                node.values.add(value);
+                size++;
+                return;
+            }
+
+            Node<T> child = node.children.get(distance);
+            if (child == null) {
+                child = new Node<>(hash);
+                child.values.add(value);
+                node.children.put(distance, child);
+                nodeCount++;
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Remove a value stored under the given hash
+     * @return true if the value was found and removed
+     */
+    public synchronized boolean remove(long hash, T value) {
+        Node<T> node = root;
+        while (node != null) {
+            int distance = distance(hash, node.hash);
+            if (distance == 0) {
+                if (!node.values.remove(value)) {
+                    return false;
+                }
+                size--;
+                if (node.values.isEmpty()) {
+                    emptyNodeCount++;
+                    if (emptyNodeCount * 2 > nodeCount) {
+                        rebuild();
+                    }
+                }
+                return true;
+            }
+            node = node.children.get(distance);
+        }
+        return false;
+    }
+
+    /**
+     * Find all values whose hash is within the given Hamming distance of the target
+     * @return Matches with their distances (unordered)
+     */
+    public synchronized List<Match<T>> query(long target, int radius) {
+        List<Match<T>> matches = new ArrayList<>();
+        if (root == null) {
+            return matches;
+        }
+
+        List<Node<T>> pending = new ArrayList<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            Node<T> node = pending.remove(pending.size() - 1);
+            int distance = distance(target, node.hash);
+            if (distance <= radius) {
+                for (T value : node.values) {
+                    matches.add(new Match<>(value, distance));
+                }
+            }
+
+            for (Map.Entry<Integer, Node<T>> child : node.children.entrySet()) {
+                int edge = child.getKey();
+                if (edge >= distance - radius && edge <= distance + radius) {
+                    pending.add(child.getValue());
+                }
+            }
+        }
+        return matches;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        root = null;
+        nodeCount = 0;
+        emptyNodeCount = 0;
+        size = 0;
+    }
+
+    public static int distance(long hash1, long hash2) {
+        return Long.bitCount(hash1 ^ hash2);
+    }
+
+    private void rebuild() {
+        List<Node<T>> live = new ArrayList<>();
+        List<Node<T>> pending = new ArrayList<>();
+        if (root != null) {
+            pending.add(root);
+        }
+        while (!pending.isEmpty()) {
+            Node<T> node = pending.remove(pending.size() - 1);
+            if (!node.values.isEmpty()) {
+                live.add(node);
+            }
+            pending.addAll(node.children.values());
+        }
+
+        clear();
+        for (Node<T> node : live) {
+            for (T value : node.values) {
+                add(node.hash, value);
+            }
+        }
+    }
+
+    /**
+     * Value found by a radius query
+     */
+    public static class Match<T> {
+        public final T value;
+        public final int distance;
+
+        Match(T value, int distance) {
+            this.value = value;
+            this.distance = distance;
+        }
+    }
+
+    private static class Node<T> {
+        final long hash;
+        final List<T> values = new ArrayList<>(1);
+        final Map<Integer, Node<T>> children = new HashMap<>();
+
+        Node(long hash) {
+            this.hash = hash;
+        }
+    }
+}
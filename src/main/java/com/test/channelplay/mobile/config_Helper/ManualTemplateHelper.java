@@ -21,11 +21,6 @@ public class ManualTemplateHelper {
     private static final Logger log = LoggerFactory.getLogger(ManualTemplateHelper.class);
     private static final String MANUAL_TEMPLATE_DIR = "templates/manual_captured_images";
 
-    // Emulator specifications
-    private static final int EMULATOR_WIDTH = 1080;
-    private static final int EMULATOR_HEIGHT = 2400;
-    private static final int EMULATOR_DPI = 420;
-
     /**
      * Process a manually captured screenshot and generate metadata
      * @param imagePath Path to the screenshot image
@@ -65,15 +60,16 @@ public class ManualTemplateHelper {
                 bounds = new Rectangle(x, y, image.getHeight(), image.getWidth());
             }
 
-            // Create metadata with emulator screen dimensions
-            Dimension screenSize = new Dimension(EMULATOR_WIDTH, EMULATOR_HEIGHT);
+            // Create metadata with the reference capture device geometry (template.capture.reference.*)
+            Dimension screenSize = new Dimension(TemplateConfig.getCaptureReferenceWidth(), TemplateConfig.getCaptureReferenceHeight());
             TemplateMetadata metadata = TemplateMetadata.createFromImage(
                 targetImagePath,
                 image,
                 elementName,
                 "Manual",
                 bounds,
-                screenSize
+                screenSize,
+                TemplateConfig.getCaptureReferenceDpi()
             );
 
             log.info("Successfully created metadata for manual template: {}", elementName);
@@ -129,7 +125,8 @@ public class ManualTemplateHelper {
             BufferedImage image = ImageIO.read(new File(imagePath));
 
             // Check image is not full screen
-            if (image.getWidth() == EMULATOR_WIDTH && image.getHeight() == EMULATOR_HEIGHT) {
+            if (image.getWidth() == TemplateConfig.getCaptureReferenceWidth()
+                    && image.getHeight() == TemplateConfig.getCaptureReferenceHeight()) {
                 log.warn("Image appears to be full screen. Should be cropped to element only.");
                 return false;
             }
@@ -0,0 +1,167 @@
+package com.test.channelplay.mobile.config_Helper;
+
+import org.opencv.core.Mat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Scoped owner of OpenCV Mats: every Mat tracked by an arena is released when the arena closes
+ *
+ * OpenCV Mats hold native (off-heap) buffers that are only freed by release() or, much later, by
+ * finalization - the JVM heap can look fine while native memory keeps growing.
+ *
+ * Usage:
+ *   try (MatArena arena = MatArena.open("findElementByImage")) {
+ *       Mat gray = arena.newMat();
+ *       Mat screen = arena.track(Imgcodecs.imdecode(...));
+ *       ...
+ *       return arena.detach(result);  // caller now owns result
+ *   }
+ *
+ * Leak detection (template.mat.leak.detection.enabled): Mats tracked by any arena are also watched
+ * globally; at scenario end reportScenario() logs the ones still holding native memory (detached and
+ * never released, or owned by an arena that was never closed), grouped by arena scope.
+ */
+public final class MatArena implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MatArena.class);
+
+    private static final ConcurrentLinkedQueue<Watched> watched = new ConcurrentLinkedQueue<>();
+    private static volatile String currentScenario = "unknown";
+
+    private final String scope;
+    private final List<Mat> mats = new ArrayList<>();
+    private final boolean leakDetection;
+
+    private MatArena(String scope) {
+        this.scope = scope;
+        this.leakDetection = TemplateConfig.isMatLeakDetectionEnabled();
+    }
+
+    /**
+     * Open an arena (use with try-with-resources)
+     * @param scope Name shown in leak reports (e.g. the calling method)
+     */
+    public static MatArena open(String scope) {
+        return new MatArena(scope);
+    }
+
+    /**
+     * Allocate an empty Mat owned by this arena
+     */
+    public Mat newMat() {
+        return track(new Mat());
+    }
+
+    /**
+     * Take ownership of a Mat (null-safe); it is released when the arena closes
+     */
+    public <T extends Mat> T track(T mat) {
+        if (mat != null) {
+            mats.add(mat);
+            if (leakDetection) {
+                watched.add(new Watched(mat, scope, currentScenario));
+            }
+        }
+        return mat;
+    }
+
+    /**
+     * Hand ownership of a Mat to the caller; it is no longer released by this arena
+     */
+    public <T extends Mat> T detach(T mat) {
+        for (int i = mats.size() - 1; i >= 0; i--) {
+            if (mats.get(i) == mat) {
+                mats.remove(i);
+                break;
+            }
+        }
+        return mat;
+    }
+
+    /**
+     * Release every Mat still owned by this arena (newest first)
+     */
+    @Override
+    public void close() {
+        for (int i = mats.size() - 1; i >= 0; i--) {
+            mats.get(i).release();
+        }
+        mats.clear();
+    }
+
+    // ========== Leak detection ==========
+
+    /**
+     * Mark the start of a scenario; Mats tracked from now on are attributed to it
+     */
+    public static void beginScenario(String scenarioName) {
+        currentScenario = scenarioName;
+    }
+
+    /**
+     * Log Mats from this scenario that still hold native memory, grouped by arena scope
+     * @return Outstanding native bytes attributed to the scenario
+     */
+    public static long reportScenario(String scenarioName) {
+        if (!TemplateConfig.isMatLeakDetectionEnabled()) {
+            return 0;
+        }
+
+        Map<String, long[]> byScope = new TreeMap<>();  // scope -> {count, bytes}
+        long totalBytes = 0;
+        long totalCount = 0;
+
+        Iterator<Watched> iterator = watched.iterator();
+        while (iterator.hasNext()) {
+            Watched entry = iterator.next();
+            Mat mat = entry.mat.get();
+            long bytes = mat != null && mat.dataAddr() != 0 ? mat.total() * mat.elemSize() : 0;
+
+            if (bytes == 0) {
+                iterator.remove();  // Released (or collected) - nothing outstanding
+                continue;
+            }
+            if (!entry.scenario.equals(scenarioName)) {
+                continue;
+            }
+
+            long[] stats = byScope.computeIfAbsent(entry.scope, k -> new long[2]);
+            stats[0]++;
+            stats[1] += bytes;
+            totalCount++;
+            totalBytes += bytes;
+        }
+
+        if (totalCount == 0) {
+            log.info("Native Mat leak check for '{}': no outstanding Mats", scenarioName);
+        } else {
+            log.warn("Native Mat leak check for '{}': {} Mats still hold {} KB", scenarioName, totalCount, totalBytes / 1024);
+            for (Map.Entry<String, long[]> scope : byScope.entrySet()) {
+                log.warn("  {}: {} Mats, {} KB", scope.getKey(), scope.getValue()[0], scope.getValue()[1] / 1024);
+            }
+        }
+        log.info("Template Mat cache retains {} KB (bounded, not a leak)", TemplateMatCache.getResidentBytes() / 1024);
+        return totalBytes;
+    }
+
+    private static class Watched {
+        final WeakReference<Mat> mat;
+        final String scope;
+        final String scenario;
+
+        Watched(Mat mat, String scope, String scenario) {
+            this.mat = new WeakReference<>(mat);
+            this.scope = scope;
+            this.scenario = scenario;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.test.channelplay.mobile.config_Helper;
+
+import net.sourceforge.tess4j.Word;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide cache of Tesseract word lists keyed by screenshot content hash
+ *
+ * Every OCR strategy (two-pass, color-based, smart offset, fixed-offset fallback) and every
+ * field lookup on an unchanged screen reuses the same recognition pass.
+ * Entries are evicted in LRU order once the configured capacity is reached.
+ */
+public class OCRWordCache {
+
+    private static final Logger log = LoggerFactory.getLogger(OCRWordCache.class);
+
+    private static final Map<String, List<Word>> cache = new LinkedHashMap<String, List<Word>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<Word>> eldest) {
+            boolean evict = size() > TemplateConfig.getOCRCacheSize();
+            if (evict) {
+                evictions.incrementAndGet();
+            }
+            return evict;
+        }
+    };
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Get OCR words for a screenshot, running recognition only on a cache miss
+     * @param screenshotBytes Raw screenshot bytes (used for the content hash)
+     * @param recognizer Recognition pass to run on a miss (e.g. tesseract.getWords(image, level))
+     * @return Word list with bounding boxes (unmodifiable)
+     */
+    public static List<Word> getWords(byte[] screenshotBytes, Callable<List<Word>> recognizer) throws Exception {
+        return getWords(screenshotBytes, null, recognizer);
+    }
+
+    /**
+     * Get OCR words for a region of a screenshot, running recognition only on a cache miss
+     * @param screenshotBytes Raw screenshot bytes (used for the content hash)
+     * @param regionKey Identifies the recognized region (null for the full frame)
+     * @param recognizer Recognition pass to run on a miss
+     * @return Word list with bounding boxes (unmodifiable)
+     */
+    public static List<Word> getWords(byte[] screenshotBytes, String regionKey, Callable<List<Word>> recognizer) throws Exception {
+        String key = contentHash(screenshotBytes) + (regionKey != null ? "@" + regionKey : "");
+
+        synchronized (cache) {
+            List<Word> cached = cache.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                log.debug("OCR cache HIT for screen {} ({} words)", key.substring(0, 12), cached.size());
+                return cached;
+            }
+        }
+
+        // Run recognition outside the lock so other screens are not blocked behind a slow OCR pass
+        misses.incrementAndGet();
+        long startTime = System.currentTimeMillis();
+        List<Word> words = Collections.unmodifiableList(recognizer.call());
+        log.debug("OCR cache MISS for screen {} - recognized {} words in {}ms",
+                  key.substring(0, 12), words.size(), System.currentTimeMillis() - startTime);
+
+        synchronized (cache) {
+            cache.put(key, words);
+        }
+        return words;
+    }
+
+    /**
+     * Drop all cached word lists (counters are kept)
+     */
+    public static void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    public static long getMissCount() {
+        return misses.get();
+    }
+
+    public static long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public static double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total > 0 ? (double) hits.get() / total : 0.0;
+    }
+
+    /**
+     * Log cache statistics
+     */
+    public static void logStats() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        log.info("OCR word cache: {} entries, {} hits, {} misses, {} evictions (hit rate: {}%)",
+                 size, hits.get(), misses.get(), evictions.get(), String.format("%.1f", getHitRate() * 100));
+    }
+
+    private static String contentHash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is always available on the JVM, but keep a usable key just in case
+            return bytes.length + "_" + java.util.Arrays.hashCode(bytes);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.test.channelplay.mobile.config_Helper;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.proxy.MethodCallListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parsed page source of the current UI state, shared by every locator lookup on that state
+ *
+ * getPageSource() serialises the whole accessibility tree over HTTP. One snapshot is fetched per
+ * UI state and XPath strategies are evaluated locally against it (Appium evaluates XPath 1.0
+ * against the same XML), so a strategy loop costs one round-trip plus one findElement for the
+ * winning locator. The snapshot is dropped on any screen-changing driver command (ACTION_LISTENER,
+ * attached by MobileDriverManager) or once it is older than template.pagesource.cache.ttl.ms.
+ *
+ * Usage:
+ *   PageSourceSnapshot snapshot = PageSourceSnapshot.current(driver);
+ *   int winner = snapshot.firstMatching(xpaths, 0);
+ *   int changed = before.changedNodes(PageSourceSnapshot.current(driver));
+ */
+public class PageSourceSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(PageSourceSnapshot.class);
+
+    private static final int MAX_COMPILED_XPATHS = 256;
+
+    private static final Map<AppiumDriver, Holder> holders = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // XPathExpression is not thread-safe: one LRU of compiled expressions per thread
+    private static final ThreadLocal<Map<String, XPathExpression>> compiled = ThreadLocal.withInitial(
+            () -> new LinkedHashMap<String, XPathExpression>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+                    return size() > MAX_COMPILED_XPATHS;
+                }
+            });
+
+    /**
+     * Drops the snapshot of the driver a screen-changing command is sent to
+     */
+    public static final MethodCallListener ACTION_LISTENER = new MethodCallListener() {
+        @Override
+        public void beforeCall(Object target, Method method, Object[] args) {
+            if (!"execute".equals(method.getName()) || args == null || args.length == 0 || !(args[0] instanceof String)) {
+                return;
+            }
+            if (ScreenshotProvider.changesScreen((String) args[0]) && target instanceof AppiumDriver) {
+                invalidate((AppiumDriver) target);
+            }
+        }
+    };
+
+    private static final AtomicLong fetches = new AtomicLong();
+    private static final AtomicLong reuses = new AtomicLong();
+    private static final AtomicLong localEvaluations = new AtomicLong();
+
+    private final String source;
+    private final long capturedAt;
+    private Document document;  // Parsed on first local evaluation, guarded by this
+    private boolean parseAttempted;
+
+    private PageSourceSnapshot(String source) {
+        this.source = source;
+        this.capturedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Get the snapshot of the current UI state, fetching the page source only if there is no fresh one
+     */
+    public static PageSourceSnapshot current(AppiumDriver driver) {
+        Holder holder = holders.computeIfAbsent(driver, d -> new Holder());
+        long ttlMs = TemplateConfig.getPageSourceCacheTtlMs();
+        long startGeneration;
+
+        synchronized (holder) {
+            if (holder.snapshot != null && System.currentTimeMillis() - holder.snapshot.capturedAt <= ttlMs) {
+                reuses.incrementAndGet();
+                return holder.snapshot;
+            }
+            startGeneration = holder.generation;
+        }
+
+        // Fetch outside the lock; an action during the round-trip means this tree may already be stale
+        PageSourceSnapshot snapshot = new PageSourceSnapshot(driver.getPageSource());
+        fetches.incrementAndGet();
+
+        synchronized (holder) {
+            if (ttlMs > 0 && holder.generation == startGeneration) {
+                holder.snapshot = snapshot;
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Get a new snapshot of the current UI state, bypassing the cached one
+     */
+    public static PageSourceSnapshot refresh(AppiumDriver driver) {
+        invalidate(driver);
+        return current(driver);
+    }
+
+    /**
+     * Drop the cached snapshot of a driver
+     */
+    public static void invalidate(AppiumDriver driver) {
+        Holder holder = holders.get(driver);
+        if (holder != null) {
+            synchronized (holder) {
+                holder.snapshot = null;
+                holder.generation++;
+            }
+        }
+    }
+
+    /**
+     * Check whether this snapshot is still the cached state of a driver (false once an action invalidated it)
+     */
+    public boolean isCurrent(AppiumDriver driver) {
+        Holder holder = holders.get(driver);
+        if (holder == null) {
+            return false;
+        }
+        synchronized (holder) {
+            return holder.snapshot == this;
+        }
+    }
+
+    /**
+     * Parsed tree, parsed on first use so snapshots taken only to compare sources (UI settle samples) stay cheap
+     * @return Document, or null if the source is not well-formed XML
+     */
+    private synchronized Document document() {
+        if (!parseAttempted) {
+            parseAttempted = true;
+            try {
+                DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+                factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+                factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+                DocumentBuilder builder = factory.newDocumentBuilder();
+                document = builder.parse(new InputSource(new StringReader(source)));
+            } catch (Exception e) {
+                log.warn("Failed to parse page source ({} chars): {}", source.length(), e.getMessage());
+            }
+        }
+        return document;
+    }
+
+    /**
+     * Raw page source XML
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Check whether the page source could be parsed (otherwise local evaluation matches nothing)
+     */
+    public boolean isParsed() {
+        return document() != null;
+    }
+
+    /**
+     * Elements matching an XPath, in document order (the order the device returns them)
+     */
+    public List<Element> select(String xpath) {
+        List<Element> elements = new ArrayList<>();
+        Document parsed = document();
+        if (parsed == null) {
+            return elements;
+        }
+        try {
+            NodeList nodes = (NodeList) compile(xpath).evaluate(parsed, XPathConstants.NODESET);
+            localEvaluations.incrementAndGet();
+            for (int i = 0; i < nodes.getLength(); i++) {
+                if (nodes.item(i) instanceof Element) {
+                    elements.add((Element) nodes.item(i));
+                }
+            }
+        } catch (XPathExpressionException e) {
+            log.debug("XPath not evaluable locally: {} ({})", xpath, e.getMessage());
+        }
+        return elements;
+    }
+
+    /**
+     * Check whether the first element an XPath matches is displayed (what findElement + isDisplayed sees on the device)
+     */
+    public boolean firstIsDisplayed(String xpath) {
+        List<Element> elements = select(xpath);
+        return !elements.isEmpty() && isDisplayed(elements.get(0));
+    }
+
+    /**
+     * Index of the first XPath whose first match is displayed, starting at a given index
+     * @return Index into xpaths, or -1 if none matches
+     */
+    public int firstMatching(List<String> xpaths, int fromIndex) {
+        for (int i = fromIndex; i < xpaths.size(); i++) {
+            if (firstIsDisplayed(xpaths.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Milliseconds since this snapshot was fetched
+     */
+    public long getAgeMs() {
+        return System.currentTimeMillis() - capturedAt;
+    }
+
+    /**
+     * Number of nodes that differ between two snapshots (node signature: tag plus every attribute -
+     * text, content-desc, bounds, focus/checked state), 0 when the UI is structurally the same
+     */
+    public int changedNodes(PageSourceSnapshot other) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String signature : signatures()) {
+            counts.merge(signature, 1, Integer::sum);
+        }
+        int changed = 0;
+        for (String signature : other.signatures()) {
+            Integer count = counts.get(signature);
+            if (count == null || count == 0) {
+                changed++;
+            } else {
+                counts.put(signature, count - 1);
+            }
+        }
+        for (int remaining : counts.values()) {
+            changed += remaining;
+        }
+        return changed;
+    }
+
+    private List<String> signatures() {
+        List<String> signatures = new ArrayList<>();
+        Document parsed = document();
+        if (parsed == null) {
+            signatures.add(source);
+            return signatures;
+        }
+        NodeList nodes = parsed.getElementsByTagName("*");
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Element element = (Element) nodes.item(i);
+            StringBuilder signature = new StringBuilder(element.getTagName());
+            NamedNodeMap attributes = element.getAttributes();
+            for (int a = 0; a < attributes.getLength(); a++) {
+                Node attribute = attributes.item(a);
+                signature.append('|').append(attribute.getNodeName()).append('=').append(attribute.getNodeValue());
+            }
+            signatures.add(signature.toString());
+        }
+        return signatures;
+    }
+
+    private static boolean isDisplayed(Element element) {
+        // UiAutomator2 and XCUITest both expose "displayed"/"visible"; assume displayed when absent
+        String displayed = element.hasAttribute("displayed") ? element.getAttribute("displayed") : element.getAttribute("visible");
+        return displayed.isEmpty() || Boolean.parseBoolean(displayed);
+    }
+
+    private static XPathExpression compile(String xpath) throws XPathExpressionException {
+        Map<String, XPathExpression> cache = compiled.get();
+        XPathExpression expression = cache.get(xpath);
+        if (expression == null) {
+            expression = XPathFactory.newInstance().newXPath().compile(xpath);
+            cache.put(xpath, expression);
+        }
+        return expression;
+    }
+
+    /**
+     * Log snapshot statistics across all drivers
+     */
+    public static void logStats() {
+        long fetchCount = fetches.get();
+        long reuseCount = reuses.get();
+        long total = fetchCount + reuseCount;
+        log.info("Page source snapshots: {} fetched, {} served from cache, {} local XPath evaluations (reuse rate: {}%)",
+                 fetchCount, reuseCount, localEvaluations.get(),
+                 String.format("%.1f", total > 0 ? reuseCount * 100.0 / total : 0.0));
+    }
+
+    private static class Holder {
+        PageSourceSnapshot snapshot;
+        long generation;
+    }
+}
@@ -0,0 +1,169 @@
+package com.test.channelplay.mobile.config_Helper;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.proxy.MethodCallListener;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.remote.DriverCommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-driver screenshot source shared by every visual lookup on the current screen
+ *
+ * Each getScreenshotAs call is an Appium round-trip plus a PNG encode on the device. Within the
+ * freshness window (template.screenshot.cache.ttl.ms) OpenCV matching, OCR, visual index lookups and
+ * template captures all reuse one frame. Any driver command that can change the screen (tap, sendKeys,
+ * gestures, scripts, navigation) invalidates the frame through ACTION_LISTENER, which
+ * MobileDriverManager attaches to the drivers it creates.
+ *
+ * Usage:
+ *   byte[] png = ScreenshotProvider.forDriver(driver).getScreenshotBytes();
+ */
+public class ScreenshotProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(ScreenshotProvider.class);
+
+    private static final Map<AppiumDriver, ScreenshotProvider> providers = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // Commands that only read state - everything else is treated as a possible screen change
+    private static final Set<String> READ_ONLY_COMMANDS = new HashSet<>(Arrays.asList(
+            DriverCommand.SCREENSHOT,
+            DriverCommand.ELEMENT_SCREENSHOT,
+            DriverCommand.FIND_ELEMENT,
+            DriverCommand.FIND_ELEMENTS,
+            DriverCommand.FIND_CHILD_ELEMENT,
+            DriverCommand.FIND_CHILD_ELEMENTS,
+            DriverCommand.GET_PAGE_SOURCE,
+            DriverCommand.GET_ELEMENT_ATTRIBUTE,
+            DriverCommand.GET_ELEMENT_PROPERTY,
+            DriverCommand.GET_ELEMENT_TEXT,
+            DriverCommand.GET_ELEMENT_TAG_NAME,
+            DriverCommand.GET_ELEMENT_RECT,
+            DriverCommand.GET_ELEMENT_LOCATION,
+            DriverCommand.GET_ELEMENT_SIZE,
+            DriverCommand.IS_ELEMENT_DISPLAYED,
+            DriverCommand.IS_ELEMENT_ENABLED,
+            DriverCommand.IS_ELEMENT_SELECTED,
+            DriverCommand.GET_CURRENT_WINDOW_SIZE,
+            DriverCommand.GET_CAPABILITIES,
+            DriverCommand.STATUS,
+            DriverCommand.SET_TIMEOUT,
+            DriverCommand.GET_CURRENT_URL,
+            DriverCommand.GET_TITLE
+    ));
+
+    /**
+     * Invalidates the screenshot of the driver a command is sent to, unless the command is read-only
+     * (every driver and element command goes through AppiumDriver.execute)
+     */
+    public static final MethodCallListener ACTION_LISTENER = new MethodCallListener() {
+        @Override
+        public void beforeCall(Object target, Method method, Object[] args) {
+            if (!"execute".equals(method.getName()) || args == null || args.length == 0 || !(args[0] instanceof String)) {
+                return;
+            }
+            if (changesScreen((String) args[0]) && target instanceof AppiumDriver) {
+                invalidate((AppiumDriver) target);
+            }
+        }
+    };
+
+    /**
+     * Check whether a driver command can change what is on screen (anything not known to be read-only)
+     */
+    public static boolean changesScreen(String command) {
+        return !READ_ONLY_COMMANDS.contains(command);
+    }
+
+    private static final AtomicLong captures = new AtomicLong();
+    private static final AtomicLong reuses = new AtomicLong();
+    private static final AtomicLong invalidations = new AtomicLong();
+
+    private final AppiumDriver driver;
+    private byte[] frame;
+    private long capturedAt;
+    private long generation;
+
+    private ScreenshotProvider(AppiumDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Get the provider for a driver (one per driver instance)
+     */
+    public static ScreenshotProvider forDriver(AppiumDriver driver) {
+        return providers.computeIfAbsent(driver, ScreenshotProvider::new);
+    }
+
+    /**
+     * Drop the cached frame of a driver (next request captures a new screenshot)
+     */
+    public static void invalidate(AppiumDriver driver) {
+        ScreenshotProvider provider = providers.get(driver);
+        if (provider != null) {
+            provider.invalidate();
+        }
+    }
+
+    /**
+     * Get screenshot PNG bytes, reusing the current frame while it is fresh
+     * @return PNG bytes (shared between consumers - do not modify)
+     */
+    public byte[] getScreenshotBytes() {
+        long ttlMs = TemplateConfig.getScreenshotCacheTtlMs();
+        long startGeneration;
+
+        synchronized (this) {
+            if (frame != null && System.currentTimeMillis() - capturedAt <= ttlMs) {
+                reuses.incrementAndGet();
+                return frame;
+            }
+            startGeneration = generation;
+        }
+
+        // Capture outside the lock; an action during the round-trip means this frame may already be stale
+        byte[] captured = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        captures.incrementAndGet();
+
+        synchronized (this) {
+            if (ttlMs > 0 && generation == startGeneration) {
+                frame = captured;
+                capturedAt = System.currentTimeMillis();
+            }
+        }
+        return captured;
+    }
+
+    /**
+     * Drop the cached frame
+     */
+    public synchronized void invalidate() {
+        if (frame != null) {
+            invalidations.incrementAndGet();
+        }
+        frame = null;
+        generation++;
+    }
+
+    /**
+     * Log capture statistics across all drivers
+     */
+    public static void logStats() {
+        long captureCount = captures.get();
+        long reuseCount = reuses.get();
+        long total = captureCount + reuseCount;
+        log.info("Screenshot provider: {} captures, {} served from cache, {} invalidated by actions (reuse rate: {}%)",
+                 captureCount, reuseCount, invalidations.get(),
+                 String.format("%.1f", total > 0 ? reuseCount * 100.0 / total : 0.0));
+    }
+}
@@ -28,6 +28,9 @@ public class TemplateAnalytics {
     public static List<TemplateMetadata> getAllTemplates() {
         List<TemplateMetadata> templates = new ArrayList<>();
 
+        // Persist pending usage updates so the report reads current stats
+        TemplateMetadataRegistry.flush();
+
         try {
             Files.walk(Paths.get(TEMPLATES_BASE))
                 .filter(path -> path.toString().endsWith(".json"))
@@ -24,7 +24,50 @@ public class TemplateConfig {
     private static final String DEBUG_ORGANIZE_BY_SCENARIO = "template.debug.organize.by.scenario";
     private static final String DEBUG_VIEWER_AUTO_GENERATE = "template.debug.viewer.auto.generate";
     private static final String DEBUG_VIEWER_OUTPUT_PATH = "template.debug.viewer.output.path";
+    private static final String MATCH_SINGLE_PASS_ENABLED = "template.match.single.pass.enabled";
+    private static final String MATCH_ROI_MARGIN = "template.match.roi.margin";
+    private static final String PYRAMID_ENABLED = "template.match.pyramid.enabled";
+    private static final String PYRAMID_LEVELS = "template.match.pyramid.levels";
+    private static final String PYRAMID_TOP_K = "template.match.pyramid.top.k";
+    private static final String PYRAMID_REFINE_WINDOW = "template.match.pyramid.refine.window";
+    private static final String OCR_CACHE_SIZE = "template.ocr.cache.size";
+    private static final String REGION_HINT_ENABLED = "template.region.hint.enabled";
+    private static final String REGION_HINT_PADDING = "template.region.hint.padding";
 
+    private static final String OCR_POOL_SIZE = "template.ocr.pool.size";
+    private static final String OCR_POOL_BORROW_TIMEOUT = "template.ocr.pool.borrow.timeout.seconds";
+    private static final String OCR_TESSDATA_PATH = "template.ocr.tessdata.path";
+    private static final String OCR_LANGUAGE = "template.ocr.language";
+    private static final String OCR_PARALLEL_STRATEGIES = "template.ocr.parallel.strategies.enabled";
+    private static final String VISUAL_HASH_WEIGHT_AVERAGE = "template.visual.hash.weight.average";
+    private static final String VISUAL_HASH_WEIGHT_DIFFERENCE = "template.visual.hash.weight.difference";
+    private static final String VISUAL_HASH_WEIGHT_PERCEPTUAL = "template.visual.hash.weight.perceptual";
+    private static final String VISUAL_HASH_MAX_DISTANCE = "template.visual.hash.max.distance";
+    private static final String METADATA_WRITE_BEHIND_ENABLED = "template.metadata.write.behind.enabled";
+    private static final String METADATA_FLUSH_INTERVAL_MS = "template.metadata.flush.interval.ms";
+    private static final String TEMPLATE_STORE_ENABLED = "template.store.enabled";
+    private static final String TEMPLATE_STORE_PATH = "template.store.path";
+    private static final String TEMPLATE_MAT_CACHE_MAX_MB = "template.mat.cache.max.mb";
+    private static final String TEMPLATE_MAT_LEAK_DETECTION_ENABLED = "template.mat.leak.detection.enabled";
+    private static final String SCREENSHOT_CACHE_TTL_MS = "template.screenshot.cache.ttl.ms";
+    private static final String MATCH_PARALLEL_ENABLED = "template.match.parallel.enabled";
+    private static final String MATCH_PARALLEL_THREADS = "template.match.parallel.threads";
+    private static final String MATCH_BATCH_THREADS = "template.match.batch.threads";
+    private static final String MATCH_SCALE_ENABLED = "template.match.scale.enabled";
+    private static final String MATCH_SCALE_STEPS = "template.match.scale.steps";
+    private static final String CAPTURE_REFERENCE_WIDTH = "template.capture.reference.width";
+    private static final String CAPTURE_REFERENCE_HEIGHT = "template.capture.reference.height";
+    private static final String CAPTURE_REFERENCE_DPI = "template.capture.reference.dpi";
+    private static final String DEBUG_QUEUE_SIZE = "template.debug.queue.size";
+    private static final String DEBUG_IMAGE_FORMAT = "template.debug.image.format";
+    private static final String DEBUG_IMAGE_QUALITY = "template.debug.image.quality";
+    private static final String UI_SETTLE_ENABLED = "template.ui.settle.enabled";
+    private static final String UI_SETTLE_SIGNAL = "template.ui.settle.signal";
+    private static final String UI_SETTLE_TIMEOUT_MS = "template.ui.settle.timeout.ms";
+    private static final String UI_SETTLE_QUIET_MS = "template.ui.settle.quiet.ms";
+    private static final String UI_SETTLE_POLL_MS = "template.ui.settle.poll.ms";
+    private static final String UI_SETTLE_FRAME_DIFF_THRESHOLD = "template.ui.settle.frame.diff.threshold";
+    private static final String PAGESOURCE_CACHE_TTL_MS = "template.pagesource.cache.ttl.ms";
     // Default values
     private static final boolean DEFAULT_AUTO_CAPTURE_ENABLED = true;
     private static final int DEFAULT_MAX_VERSIONS = 3;
@@ -38,6 +81,48 @@ public class TemplateConfig {
     private static final boolean DEFAULT_DEBUG_ORGANIZE_BY_SCENARIO = true;
     private static final boolean DEFAULT_DEBUG_VIEWER_AUTO_GENERATE = true;
     private static final String DEFAULT_DEBUG_VIEWER_OUTPUT_PATH = "screenshots/debug_matches_viewer.html";
+    private static final boolean DEFAULT_MATCH_SINGLE_PASS_ENABLED = true;
+    private static final int DEFAULT_MATCH_ROI_MARGIN = 40;
+    private static final boolean DEFAULT_PYRAMID_ENABLED = false;
+    private static final int[] DEFAULT_PYRAMID_LEVELS = {4, 2};
+    private static final int DEFAULT_PYRAMID_TOP_K = 3;
+    private static final int DEFAULT_PYRAMID_REFINE_WINDOW = 16;
+    private static final int DEFAULT_OCR_CACHE_SIZE = 8;
+    private static final boolean DEFAULT_REGION_HINT_ENABLED = true;
+    private static final double DEFAULT_REGION_HINT_PADDING = 0.1;
+    private static final int DEFAULT_OCR_POOL_SIZE = 2;
+    private static final int DEFAULT_OCR_POOL_BORROW_TIMEOUT = 60;
+    private static final String DEFAULT_OCR_LANGUAGE = "eng";
+    private static final boolean DEFAULT_OCR_PARALLEL_STRATEGIES = false;
+    private static final double DEFAULT_VISUAL_HASH_WEIGHT_AVERAGE = 1.0;
+    private static final double DEFAULT_VISUAL_HASH_WEIGHT_DIFFERENCE = 1.0;
+    private static final double DEFAULT_VISUAL_HASH_WEIGHT_PERCEPTUAL = 2.0;
+    private static final double DEFAULT_VISUAL_HASH_MAX_DISTANCE = 5.0;
+    private static final boolean DEFAULT_METADATA_WRITE_BEHIND_ENABLED = true;
+    private static final long DEFAULT_METADATA_FLUSH_INTERVAL_MS = 5000;
+    private static final boolean DEFAULT_TEMPLATE_STORE_ENABLED = false;
+    private static final String DEFAULT_TEMPLATE_STORE_PATH = "templates/template_store.bin";
+    private static final long DEFAULT_TEMPLATE_MAT_CACHE_MAX_MB = 64;
+    private static final boolean DEFAULT_TEMPLATE_MAT_LEAK_DETECTION_ENABLED = false;
+    private static final long DEFAULT_SCREENSHOT_CACHE_TTL_MS = 1000;
+    private static final boolean DEFAULT_MATCH_PARALLEL_ENABLED = false;
+    private static final int DEFAULT_MATCH_PARALLEL_THREADS = 3;
+    private static final int DEFAULT_MATCH_BATCH_THREADS = 4;
+    private static final boolean DEFAULT_MATCH_SCALE_ENABLED = true;
+    private static final double[] DEFAULT_MATCH_SCALE_STEPS = {1.0, 0.9, 1.1};
+    private static final int DEFAULT_CAPTURE_REFERENCE_WIDTH = 1080;
+    private static final int DEFAULT_CAPTURE_REFERENCE_HEIGHT = 2400;
+    private static final int DEFAULT_CAPTURE_REFERENCE_DPI = 420;
+    private static final int DEFAULT_DEBUG_QUEUE_SIZE = 32;
+    private static final String DEFAULT_DEBUG_IMAGE_FORMAT = "png";
+    private static final int DEFAULT_DEBUG_IMAGE_QUALITY = 85;
+    private static final boolean DEFAULT_UI_SETTLE_ENABLED = true;
+    private static final String DEFAULT_UI_SETTLE_SIGNAL = "pagesource";
+    private static final int DEFAULT_UI_SETTLE_TIMEOUT_MS = 2000;
+    private static final int DEFAULT_UI_SETTLE_QUIET_MS = 300;
+    private static final int DEFAULT_UI_SETTLE_POLL_MS = 100;
+    private static final double DEFAULT_UI_SETTLE_FRAME_DIFF_THRESHOLD = 1.0;
+    private static final long DEFAULT_PAGESOURCE_CACHE_TTL_MS = 1000;
 
     /**
      * Check if auto-capture is enabled
@@ -198,6 +283,597 @@ public class TemplateConfig {
         return DEFAULT_DEBUG_VIEWER_OUTPUT_PATH;
     }
 
+    /**
+     * Check if single-pass template matching is enabled
+     * (only TM_CCOEFF_NORMED scans the full frame, other methods are re-scored around its peak)
+     */
+    public static boolean isSinglePassMatchingEnabled() {
+        String value = GetProperty.value(MATCH_SINGLE_PASS_ENABLED);
+        if (value != null && !value.isEmpty()) {
+            return Boolean.parseBoolean(value);
+        }
+        return DEFAULT_MATCH_SINGLE_PASS_ENABLED;
+    }
+
+    /**
+     * Get margin in pixels around the best peak used when re-scoring secondary strategies
+     */
+    public static int getMatchRoiMargin() {
+        String value = GetProperty.value(MATCH_ROI_MARGIN);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                log.warn("Invalid match ROI margin config, using default: {}", DEFAULT_MATCH_ROI_MARGIN);
+            }
+        }
+        return DEFAULT_MATCH_ROI_MARGIN;
+    }
+
+    /**
+     * Check if coarse-to-fine pyramid template matching is enabled
+     */
+    public static boolean isPyramidMatchingEnabled() {
+        String value = GetProperty.value(PYRAMID_ENABLED);
+        if (value != null && !value.isEmpty()) {
+            return Boolean.parseBoolean(value);
+        }
+        return DEFAULT_PYRAMID_ENABLED;
+    }
+
+    /**
+     * Get pyramid downscale factors, coarsest first (e.g. "4,2" = 1/4 scale, then 1/2 scale)
+     */
+    public static int[] getPyramidLevels() {
+        String value = GetProperty.value(PYRAMID_LEVELS);
+        if (value != null && !value.isEmpty()) {
+            try {
+                int[] levels = java.util.Arrays.stream(value.split(","))
+                        .map(String::trim)
+                        .mapToInt(Integer::parseInt)
+                        .filter(factor -> factor > 1)
+                        .boxed()
+                        .sorted(java.util.Comparator.reverseOrder())
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+                if (levels.length > 0) {
+                    return levels;
+                }
+            } catch (NumberFormatException e) {
+                // Fall through to default
+            }
+            log.warn("Invalid pyramid levels config, using default: {}", java.util.Arrays.toString(DEFAULT_PYRAMID_LEVELS));
+        }
+        return DEFAULT_PYRAMID_LEVELS.clone();
+    }
+
+    /**
+     * Get number of candidate windows carried from one pyramid level to the next
+     */
+    public static int getPyramidTopK() {
+        String value = GetProperty.value(PYRAMID_TOP_K);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(1, Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid pyramid top-k config, using default: {}", DEFAULT_PYRAMID_TOP_K);
+            }
+        }
+        return DEFAULT_PYRAMID_TOP_K;
+    }
+
+    /**
+     * Get refinement window margin in full-resolution pixels around each pyramid candidate
+     */
+    public static int getPyramidRefineWindow() {
+        String value = GetProperty.value(PYRAMID_REFINE_WINDOW);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                log.warn("Invalid pyramid refine window config, using default: {}", DEFAULT_PYRAMID_REFINE_WINDOW);
+            }
+        }
+        return DEFAULT_PYRAMID_REFINE_WINDOW;
+    }
+
+    /**
+     * Get maximum number of screens whose OCR word lists are kept in the OCR cache
+     */
+    public static int getOCRCacheSize() {
+        String value = GetProperty.value(OCR_CACHE_SIZE);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(1, Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid OCR cache size config, using default: {}", DEFAULT_OCR_CACHE_SIZE);
+            }
+        }
+        return DEFAULT_OCR_CACHE_SIZE;
+    }
+
+    /**
+     * Check if template relative positions are used as a search window for matching and OCR
+     */
+    public static boolean isRegionHintEnabled() {
+        String value = GetProperty.value(REGION_HINT_ENABLED);
+        if (value != null && !value.isEmpty()) {
+            return Boolean.parseBoolean(value);
+        }
+        return DEFAULT_REGION_HINT_ENABLED;
+    }
+
+    /**
+     * Get padding added on each side of the expected region (fraction of screen width/height)
+     */
+    public static double getRegionHintPadding() {
+        String value = GetProperty.value(REGION_HINT_PADDING);
+        if (value != null && !value.isEmpty()) {
+            try {
+                double padding = Double.parseDouble(value);
+                if (padding >= 0.0 && padding <= 1.0) {
+                    return padding;
+                } else {
+                    log.warn("Region hint padding must be between 0.0 and 1.0, using default: {}",
+                             DEFAULT_REGION_HINT_PADDING);
+                }
+            } catch (NumberFormatException e) {
+                log.warn("Invalid region hint padding config, using default: {}", DEFAULT_REGION_HINT_PADDING);
+            }
+        }
+        return DEFAULT_REGION_HINT_PADDING;
+    }
+
+    /**
+     * Get number of pre-initialised Tesseract engines in the OCR pool
+     */
+    public static int getOCRPoolSize() {
+        String value = GetProperty.value(OCR_POOL_SIZE);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(1, Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid OCR pool size config, using default: {}", DEFAULT_OCR_POOL_SIZE);
+            }
+        }
+        return DEFAULT_OCR_POOL_SIZE;
+    }
+
+    /**
+     * Get maximum time to wait for a free Tesseract engine (seconds)
+     */
+    public static int getOCRPoolBorrowTimeoutSeconds() {
+        String value = GetProperty.value(OCR_POOL_BORROW_TIMEOUT);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(1, Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid OCR pool borrow timeout config, using default: {}", DEFAULT_OCR_POOL_BORROW_TIMEOUT);
+            }
+        }
+        return DEFAULT_OCR_POOL_BORROW_TIMEOUT;
+    }
+
+    /**
+     * Get Tesseract tessdata folder (property, then TESSDATA_PREFIX environment variable)
+     * @return Folder, or null to let Tesseract use its own default location
+     */
+    public static String getOCRTessdataPath() {
+        String value = GetProperty.value(OCR_TESSDATA_PATH);
+        if (value != null && !value.isEmpty()) {
+            return value;
+        }
+        String env = System.getenv("TESSDATA_PREFIX");
+        if (env != null && !env.isEmpty()) {
+            return env;
+        }
+        return null;
+    }
+
+    /**
+     * Get Tesseract language (e.g. eng, eng+hin)
+     */
+    public static String getOCRLanguage() {
+        String value = GetProperty.value(OCR_LANGUAGE);
+        if (value != null && !value.isEmpty()) {
+            return value;
+        }
+        return DEFAULT_OCR_LANGUAGE;
+    }
+
+    /**
+     * Check if OCR strategies (two-pass, color-based, smart offset) run concurrently on the shared word list
+     */
+    public static boolean isParallelOCRStrategiesEnabled() {
+        String value = GetProperty.value(OCR_PARALLEL_STRATEGIES);
+        if (value != null && !value.isEmpty()) {
+            return Boolean.parseBoolean(value);
+        }
+        return DEFAULT_OCR_PARALLEL_STRATEGIES;
+    }
+
+    /**
+     * Get weight of the average hash (aHash) in the fused visual fingerprint distance
+     */
+    public static double getVisualHashAverageWeight() {
+        return getVisualHashWeight(VISUAL_HASH_WEIGHT_AVERAGE, DEFAULT_VISUAL_HASH_WEIGHT_AVERAGE);
+    }
+
+    /**
+     * Get weight of the difference hash (dHash) in the fused visual fingerprint distance
+     */
+    public static double getVisualHashDifferenceWeight() {
+        return getVisualHashWeight(VISUAL_HASH_WEIGHT_DIFFERENCE, DEFAULT_VISUAL_HASH_WEIGHT_DIFFERENCE);
+    }
+
+    /**
+     * Get weight of the DCT perceptual hash (pHash) in the fused visual fingerprint distance
+     */
+    public static double getVisualHashPerceptualWeight() {
+        return getVisualHashWeight(VISUAL_HASH_WEIGHT_PERCEPTUAL, DEFAULT_VISUAL_HASH_WEIGHT_PERCEPTUAL);
+    }
+
+    private static double getVisualHashWeight(String key, double defaultWeight) {
+        String value = GetProperty.value(key);
+        if (value != null && !value.isEmpty()) {
+            try {
+                double weight = Double.parseDouble(value);
+                if (weight >= 0.0) {
+                    return weight;
+                } else {
+                    log.warn("Visual hash weight must not be negative, using default: {}", defaultWeight);
+                }
+            } catch (NumberFormatException e) {
+                log.warn("Invalid visual hash weight config, using default: {}", defaultWeight);
+            }
+        }
+        return defaultWeight;
+    }
+
+    /**
+     * Get maximum fused fingerprint distance (bits, 0 to 64) for a fuzzy visual match
+     */
+    public static double getVisualHashMaxDistance() {
+        String value = GetProperty.value(VISUAL_HASH_MAX_DISTANCE);
+        if (value != null && !value.isEmpty()) {
+            try {
+                double distance = Double.parseDouble(value);
+                if (distance >= 0.0 && distance <= 64.0) {
+                    return distance;
+                } else {
+                    log.warn("Visual hash max distance must be between 0 and 64, using default: {}",
+                             DEFAULT_VISUAL_HASH_MAX_DISTANCE);
+                }
+            } catch (NumberFormatException e) {
+                log.warn("Invalid visual hash max distance config, using default: {}", DEFAULT_VISUAL_HASH_MAX_DISTANCE);
+            }
+        }
+        return DEFAULT_VISUAL_HASH_MAX_DISTANCE;
+    }
+
+    /**
+     * Check if template metadata usage updates are batched to disk by a background flusher
+     */
+    public static boolean isMetadataWriteBehindEnabled() {
+        String value = GetProperty.value(METADATA_WRITE_BEHIND_ENABLED);
+        if (value != null && !value.isEmpty()) {
+            return Boolean.parseBoolean(value);
+        }
+        return DEFAULT_METADATA_WRITE_BEHIND_ENABLED;
+    }
+
+    /**
+     * Get interval between background metadata flushes (milliseconds)
+     */
+    public static long getMetadataFlushIntervalMs() {
+        String value = GetProperty.value(METADATA_FLUSH_INTERVAL_MS);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(100, Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid metadata flush interval config, using default: {}", DEFAULT_METADATA_FLUSH_INTERVAL_MS);
+            }
+        }
+        return DEFAULT_METADATA_FLUSH_INTERVAL_MS;
+    }
+
+    /**
+     * Check if the single-file (memory-mapped) template store is used for template lookups
+     */
+    public static boolean isTemplateStoreEnabled() {
+        String value = GetProperty.value(TEMPLATE_STORE_ENABLED);
+        if (value != null && !value.isEmpty()) {
+            return Boolean.parseBoolean(value);
+        }
+        return DEFAULT_TEMPLATE_STORE_ENABLED;
+    }
+
+    /**
+     * Get template store file path
+     */
+    public static String getTemplateStorePath() {
+        String value = GetProperty.value(TEMPLATE_STORE_PATH);
+        if (value != null && !value.isEmpty()) {
+            return value;
+        }
+        return DEFAULT_TEMPLATE_STORE_PATH;
+    }
+
+    /**
+     * Get maximum native memory for cached preprocessed template Mats (bytes)
+     */
+    public static long getTemplateMatCacheMaxBytes() {
+        String value = GetProperty.value(TEMPLATE_MAT_CACHE_MAX_MB);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(0, Long.parseLong(value)) * 1024 * 1024;
+            } catch (NumberFormatException e) {
+                log.warn("Invalid template Mat cache size config, using default: {} MB", DEFAULT_TEMPLATE_MAT_CACHE_MAX_MB);
+            }
+        }
+        return DEFAULT_TEMPLATE_MAT_CACHE_MAX_MB * 1024 * 1024;
+    }
+
+    /**
+     * Check if native Mat leak detection (per-scenario report of unreleased Mats) is enabled
+     */
+    public static boolean isMatLeakDetectionEnabled() {
+        String value = GetProperty.value(TEMPLATE_MAT_LEAK_DETECTION_ENABLED);
+        if (value != null && !value.isEmpty()) {
+            return Boolean.parseBoolean(value);
+        }
+        return DEFAULT_TEMPLATE_MAT_LEAK_DETECTION_ENABLED;
+    }
+
+    /**
+     * Get how long one screenshot is reused by visual lookups when no driver action happened (ms, 0 disables)
+     */
+    public static long getScreenshotCacheTtlMs() {
+        String value = GetProperty.value(SCREENSHOT_CACHE_TTL_MS);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(0, Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid screenshot cache TTL config, using default: {}", DEFAULT_SCREENSHOT_CACHE_TTL_MS);
+            }
+        }
+        return DEFAULT_SCREENSHOT_CACHE_TTL_MS;
+    }
+
+    /**
+     * Check if full-frame OpenCV strategies run concurrently (used when pyramid and single-pass are off)
+     */
+    public static boolean isParallelMatchingEnabled() {
+        String value = GetProperty.value(MATCH_PARALLEL_ENABLED);
+        if (value != null && !value.isEmpty()) {
+            return Boolean.parseBoolean(value);
+        }
+        return DEFAULT_MATCH_PARALLEL_ENABLED;
+    }
+
+    /**
+     * Get size of the shared pool that runs OpenCV strategies in parallel
+     */
+    public static int getParallelMatchThreads() {
+        String value = GetProperty.value(MATCH_PARALLEL_THREADS);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(1, Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid parallel match threads config, using default: {}", DEFAULT_MATCH_PARALLEL_THREADS);
+            }
+        }
+        return DEFAULT_MATCH_PARALLEL_THREADS;
+    }
+
+    /**
+     * Get number of templates scored concurrently by a batch search (AIElementFinder.findElementsByImage)
+     */
+    public static int getBatchMatchThreads() {
+        String value = GetProperty.value(MATCH_BATCH_THREADS);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(1, Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid batch match threads config, using default: {}", DEFAULT_MATCH_BATCH_THREADS);
+            }
+        }
+        return DEFAULT_MATCH_BATCH_THREADS;
+    }
+
+    /**
+     * Check if templates are rescaled for devices with a different resolution or density than the capture device
+     */
+    public static boolean isScaleMatchingEnabled() {
+        String value = GetProperty.value(MATCH_SCALE_ENABLED);
+        if (value != null && !value.isEmpty()) {
+            return Boolean.parseBoolean(value);
+        }
+        return DEFAULT_MATCH_SCALE_ENABLED;
+    }
+
+    /**
+     * Get scale steps tried around the expected template scale, in priority order (at most 4 are used)
+     */
+    public static double[] getScaleMatchSteps() {
+        String value = GetProperty.value(MATCH_SCALE_STEPS);
+        if (value != null && !value.isEmpty()) {
+            try {
+                double[] steps = java.util.Arrays.stream(value.split(","))
+                        .map(String::trim)
+                        .mapToDouble(Double::parseDouble)
+                        .filter(step -> step > 0)
+                        .limit(4)
+                        .toArray();
+                if (steps.length > 0) {
+                    return steps;
+                }
+            } catch (NumberFormatException e) {
+                // Fall through to default
+            }
+            log.warn("Invalid scale steps config, using default: {}", java.util.Arrays.toString(DEFAULT_MATCH_SCALE_STEPS));
+        }
+        return DEFAULT_MATCH_SCALE_STEPS.clone();
+    }
+
+    /**
+     * Get screen width of the device templates without capture geometry were taken on
+     */
+    public static int getCaptureReferenceWidth() {
+        return getPositiveInt(CAPTURE_REFERENCE_WIDTH, DEFAULT_CAPTURE_REFERENCE_WIDTH, "capture reference width");
+    }
+
+    /**
+     * Get screen height of the device templates without capture geometry were taken on
+     */
+    public static int getCaptureReferenceHeight() {
+        return getPositiveInt(CAPTURE_REFERENCE_HEIGHT, DEFAULT_CAPTURE_REFERENCE_HEIGHT, "capture reference height");
+    }
+
+    /**
+     * Get screen density (dpi) of the device templates without capture geometry were taken on
+     */
+    public static int getCaptureReferenceDpi() {
+        return getPositiveInt(CAPTURE_REFERENCE_DPI, DEFAULT_CAPTURE_REFERENCE_DPI, "capture reference DPI");
+    }
+
+    private static int getPositiveInt(String key, int defaultValue, String description) {
+        String value = GetProperty.value(key);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(1, Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid {} config, using default: {}", description, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Get maximum number of debug images waiting to be written (oldest are dropped beyond this)
+     */
+    public static int getDebugQueueSize() {
+        String value = GetProperty.value(DEBUG_QUEUE_SIZE);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(1, Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid debug queue size config, using default: {}", DEFAULT_DEBUG_QUEUE_SIZE);
+            }
+        }
+        return DEFAULT_DEBUG_QUEUE_SIZE;
+    }
+
+    /**
+     * Get debug image encoding: png (lossless), jpg or webp
+     */
+    public static String getDebugImageFormat() {
+        String value = GetProperty.value(DEBUG_IMAGE_FORMAT);
+        if (value != null && !value.isEmpty()) {
+            String format = value.trim().toLowerCase();
+            if (format.equals("jpeg")) {
+                return "jpg";
+            }
+            if (format.equals("png") || format.equals("jpg") || format.equals("webp")) {
+                return format;
+            }
+            log.warn("Invalid debug image format config, using default: {}", DEFAULT_DEBUG_IMAGE_FORMAT);
+        }
+        return DEFAULT_DEBUG_IMAGE_FORMAT;
+    }
+
+    /**
+     * Get debug image quality for jpg/webp encoding (0-100)
+     */
+    public static int getDebugImageQuality() {
+        String value = GetProperty.value(DEBUG_IMAGE_QUALITY);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(0, Math.min(100, Integer.parseInt(value)));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid debug image quality config, using default: {}", DEFAULT_DEBUG_IMAGE_QUALITY);
+            }
+        }
+        return DEFAULT_DEBUG_IMAGE_QUALITY;
+    }
+
+    /**
+     * Check if UI settle detection replaces fixed waits after mobile actions (false = sleep for the full ceiling)
+     */
+    public static boolean isUiSettleEnabled() {
+        String value = GetProperty.value(UI_SETTLE_ENABLED);
+        if (value != null && !value.isEmpty()) {
+            return Boolean.parseBoolean(value);
+        }
+        return DEFAULT_UI_SETTLE_ENABLED;
+    }
+
+    /**
+     * Get the signal used to detect a settled UI: pagesource (hierarchy hash) or frame (downscaled screenshot diff)
+     */
+    public static String getUiSettleSignal() {
+        String value = GetProperty.value(UI_SETTLE_SIGNAL);
+        if (value != null && !value.isEmpty()) {
+            String signal = value.trim().toLowerCase();
+            if (signal.equals("pagesource") || signal.equals("frame")) {
+                return signal;
+            }
+            log.warn("Invalid UI settle signal config, using default: {}", DEFAULT_UI_SETTLE_SIGNAL);
+        }
+        return DEFAULT_UI_SETTLE_SIGNAL;
+    }
+
+    /**
+     * Get default ceiling for one settle wait (ms)
+     */
+    public static int getUiSettleTimeoutMs() {
+        return getPositiveInt(UI_SETTLE_TIMEOUT_MS, DEFAULT_UI_SETTLE_TIMEOUT_MS, "UI settle timeout");
+    }
+
+    /**
+     * Get how long the UI must stay unchanged to count as settled (ms)
+     */
+    public static int getUiSettleQuietMs() {
+        return getPositiveInt(UI_SETTLE_QUIET_MS, DEFAULT_UI_SETTLE_QUIET_MS, "UI settle quiet period");
+    }
+
+    /**
+     * Get delay between settle samples (ms)
+     */
+    public static int getUiSettlePollMs() {
+        return getPositiveInt(UI_SETTLE_POLL_MS, DEFAULT_UI_SETTLE_POLL_MS, "UI settle poll interval");
+    }
+
+    /**
+     * Get mean grey-level difference (0-255) below which two frames count as unchanged (frame signal)
+     */
+    public static double getUiSettleFrameDiffThreshold() {
+        String value = GetProperty.value(UI_SETTLE_FRAME_DIFF_THRESHOLD);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(0.0, Double.parseDouble(value));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid UI settle frame diff threshold config, using default: {}", DEFAULT_UI_SETTLE_FRAME_DIFF_THRESHOLD);
+            }
+        }
+        return DEFAULT_UI_SETTLE_FRAME_DIFF_THRESHOLD;
+    }
+
+    /**
+     * Get how long one parsed page source is reused by XPath lookups when no driver action happened (ms, 0 disables)
+     */
+    public static long getPageSourceCacheTtlMs() {
+        String value = GetProperty.value(PAGESOURCE_CACHE_TTL_MS);
+        if (value != null && !value.isEmpty()) {
+            try {
+                return Math.max(0, Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid page source cache TTL config, using default: {}", DEFAULT_PAGESOURCE_CACHE_TTL_MS);
+            }
+        }
+        return DEFAULT_PAGESOURCE_CACHE_TTL_MS;
+    }
+
     /**
      * Log current configuration
      */
@@ -215,5 +891,40 @@ public class TemplateConfig {
         log.info("  Debug organize by scenario: {}", isDebugOrganizeByScenario());
         log.info("  Debug viewer auto-generate: {}", isDebugViewerAutoGenerate());
         log.info("  Debug viewer output path: {}", getDebugViewerOutputPath());
+        log.info("  Single-pass matching enabled: {}", isSinglePassMatchingEnabled());
+        log.info("  Match ROI margin (px): {}", getMatchRoiMargin());
+        log.info("  Pyramid matching enabled: {}", isPyramidMatchingEnabled());
+        log.info("  Pyramid levels: {}", java.util.Arrays.toString(getPyramidLevels()));
+        log.info("  Pyramid top-k: {}", getPyramidTopK());
+        log.info("  Pyramid refine window (px): {}", getPyramidRefineWindow());
+        log.info("  OCR cache size (screens): {}", getOCRCacheSize());
+        log.info("  Region hint enabled: {}", isRegionHintEnabled());
+        log.info("  Region hint padding: {}", getRegionHintPadding());
+        log.info("  OCR pool size: {}", getOCRPoolSize());
+        log.info("  OCR pool borrow timeout (s): {}", getOCRPoolBorrowTimeoutSeconds());
+        log.info("  OCR tessdata path: {}", getOCRTessdataPath());
+        log.info("  OCR language: {}", getOCRLanguage());
+        log.info("  Parallel OCR strategies enabled: {}", isParallelOCRStrategiesEnabled());
+        log.info("  Visual hash weights (aHash/dHash/pHash): {}/{}/{}", getVisualHashAverageWeight(),
+                 getVisualHashDifferenceWeight(), getVisualHashPerceptualWeight());
+        log.info("  Visual hash max distance (bits): {}", getVisualHashMaxDistance());
+        log.info("  Metadata write-behind enabled: {}", isMetadataWriteBehindEnabled());
+        log.info("  Metadata flush interval (ms): {}", getMetadataFlushIntervalMs());
+        log.info("  Template store enabled: {}", isTemplateStoreEnabled());
+        log.info("  Template store path: {}", getTemplateStorePath());
+        log.info("  Template Mat cache max (MB): {}", getTemplateMatCacheMaxBytes() / (1024 * 1024));
+        log.info("  Mat leak detection enabled: {}", isMatLeakDetectionEnabled());
+        log.info("  Screenshot cache TTL (ms): {}", getScreenshotCacheTtlMs());
+        log.info("  Parallel matching enabled: {}", isParallelMatchingEnabled());
+        log.info("  Parallel match threads: {}", getParallelMatchThreads());
+        log.info("  Batch match threads: {}", getBatchMatchThreads());
+        log.info("  Scale matching enabled: {}", isScaleMatchingEnabled());
+        log.info("  Scale steps: {}", java.util.Arrays.toString(getScaleMatchSteps()));
+        log.info("  Capture reference device: {}x{} @ {} dpi", getCaptureReferenceWidth(), getCaptureReferenceHeight(), getCaptureReferenceDpi());
+        log.info("  Debug queue size: {}", getDebugQueueSize());
+        log.info("  Debug image format: {} (quality {})", getDebugImageFormat(), getDebugImageQuality());
+        log.info("  UI settle enabled: {} (signal: {})", isUiSettleEnabled(), getUiSettleSignal());
+        log.info("  UI settle timeout/quiet/poll (ms): {}/{}/{}", getUiSettleTimeoutMs(), getUiSettleQuietMs(), getUiSettlePollMs());
+        log.info("  Page source cache TTL (ms): {}", getPageSourceCacheTtlMs());
     }
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+package com.test.channelplay.mobile.config_Helper;
+
+import org.opencv.core.Mat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Process-wide cache of preprocessed template Mats keyed by template path and file modification time
+ *
+ * Bounded by native memory (bytes of pixel data), evicting least recently used templates and
+ * releasing their native buffers. Callers receive a copy of the cached Mat, so an eviction on
+ * another thread can never free pixels that are still being matched; the copy is cheap compared
+ * to decoding and preprocessing the image again.
+ */
+public class TemplateMatCache {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplateMatCache.class);
+
+    private static final LinkedHashMap<String, Mat> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private static long residentBytes;
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Get a preprocessed template, loading it only when the path is new or the file has changed
+     * @param templatePath Path to template image
+     * @param loader Loads and preprocesses the template on a miss (result is owned by the cache)
+     * @return Copy of the cached Mat (caller owns it and may release it)
+     */
+    public static Mat get(String templatePath, Function<String, Mat> loader) {
+        String key = templatePath + "@" + new File(templatePath).lastModified();
+
+        synchronized (cache) {
+            Mat cached = cache.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached.clone();
+            }
+        }
+
+        // Load outside the lock so other templates are not blocked behind a slow decode
+        misses.incrementAndGet();
+        Mat loaded = loader.apply(templatePath);
+        if (loaded == null || loaded.empty()) {
+            return loaded;
+        }
+
+        long bytes = sizeOf(loaded);
+        long maxBytes = TemplateConfig.getTemplateMatCacheMaxBytes();
+        if (bytes > maxBytes) {
+            log.debug("Template '{}' ({} bytes) exceeds cache capacity, not cached", templatePath, bytes);
+            return loaded;
+        }
+
+        synchronized (cache) {
+            Mat previous = cache.put(key, loaded);
+            if (previous != null) {
+                // Another thread loaded the same template concurrently
+                residentBytes -= sizeOf(previous);
+                previous.release();
+            }
+            residentBytes += bytes;
+            dropStaleVersions(templatePath, key);
+            evictToFit(maxBytes);
+            return loaded.clone();
+        }
+    }
+
+    /**
+     * Release all cached Mats
+     */
+    public static void clear() {
+        synchronized (cache) {
+            for (Mat mat : cache.values()) {
+                mat.release();
+            }
+            cache.clear();
+            residentBytes = 0;
+        }
+    }
+
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    public static long getMissCount() {
+        return misses.get();
+    }
+
+    public static long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public static double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total > 0 ? (double) hits.get() / total : 0.0;
+    }
+
+    public static long getResidentBytes() {
+        synchronized (cache) {
+            return residentBytes;
+        }
+    }
+
+    /**
+     * Log cache statistics
+     */
+    public static void logStats() {
+        int size;
+        long bytes;
+        synchronized (cache) {
+            size = cache.size();
+            bytes = residentBytes;
+        }
+        log.info("Template Mat cache: {} templates, {} KB resident of {} KB, {} hits, {} misses, {} evictions (hit rate: {}%)",
+                 size, bytes / 1024, TemplateConfig.getTemplateMatCacheMaxBytes() / 1024,
+                 hits.get(), misses.get(), evictions.get(), String.format("%.1f", getHitRate() * 100));
+    }
+
+    /**
+     * Remove entries for older versions of the same template file (caller holds the lock)
+     */
+    private static void dropStaleVersions(String templatePath, String currentKey) {
+        String prefix = templatePath + "@";
+        Iterator<Map.Entry<String, Mat>> iterator = cache.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Mat> entry = iterator.next();
+            if (entry.getKey().startsWith(prefix) && !entry.getKey().equals(currentKey)) {
+                residentBytes -= sizeOf(entry.getValue());
+                entry.getValue().release();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Evict least recently used templates until resident bytes fit (caller holds the lock)
+     */
+    private static void evictToFit(long maxBytes) {
+        Iterator<Map.Entry<String, Mat>> iterator = cache.entrySet().iterator();
+        while (residentBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Mat> eldest = iterator.next();
+            residentBytes -= sizeOf(eldest.getValue());
+            eldest.getValue().release();
+            iterator.remove();
+            evictions.incrementAndGet();
+            log.debug("Evicted template Mat: {}", eldest.getKey());
+        }
+    }
+
+    private static long sizeOf(Mat mat) {
+        return mat.total() * mat.elemSize();
+    }
+}
@@ -0,0 +1,424 @@
+package com.test.channelplay.mobile.config_Helper;
+
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Template matching engine used by AIElementFinder
+ *
+ * Works on an already preprocessed (grayscale + blurred) screen and template pair.
+ * In single-pass mode only the primary strategy (TM_CCOEFF_NORMED) correlates the full frame;
+ * the remaining strategies are re-scored on a small region of interest around its best peak.
+ * In pyramid mode the primary strategy first runs on downscaled copies (e.g. 1/4 then 1/2 scale)
+ * and only the top-k candidate windows are refined at full resolution.
+ * In parallel mode all strategies correlate the full frame concurrently on a shared bounded pool
+ * (OpenCV runs natively, outside the JVM) and the results are then read in priority order.
+ */
+public class TemplateMatchEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplateMatchEngine.class);
+
+    /**
+     * OpenCV strategies in priority order (same order and thresholds as the original three-pass matcher)
+     */
+    public enum Strategy {
+        CCOEFF_NORMED(Imgproc.TM_CCOEFF_NORMED, "TM_CCOEFF_NORMED", false),
+        CCORR_NORMED(Imgproc.TM_CCORR_NORMED, "TM_CCORR_NORMED", false),
+        SQDIFF_NORMED(Imgproc.TM_SQDIFF_NORMED, "TM_SQDIFF_NORMED", true);
+
+        public final int method;
+        public final String methodName;
+        public final boolean inverse;  // For SQDIFF methods, lower values are better
+
+        Strategy(int method, String methodName, boolean inverse) {
+            this.method = method;
+            this.methodName = methodName;
+            this.inverse = inverse;
+        }
+
+        /**
+         * Threshold for this strategy derived from the caller's base threshold
+         */
+        public double threshold(double baseThreshold) {
+            switch (this) {
+                case CCORR_NORMED: return baseThreshold * 0.9;
+                case SQDIFF_NORMED: return 0.2;
+                default: return baseThreshold;
+            }
+        }
+    }
+
+    /**
+     * Match result with confidence
+     */
+    public static class MatchResult {
+        public Point point;           // Center point (for clicking), null if below threshold
+        public Point matchLocation;   // Top-left corner (for drawing rectangle)
+        public double confidence;
+        public Strategy strategy;
+        public double scale = 1.0;    // Template scale the match was found at (see TemplateScaler)
+
+        public MatchResult(Point point, Point matchLocation, double confidence, Strategy strategy) {
+            this.point = point;
+            this.matchLocation = matchLocation;
+            this.confidence = confidence;
+            this.strategy = strategy;
+        }
+    }
+
+    // Smallest template side (in pixels) still worth matching at a pyramid level
+    private static final int MIN_PYRAMID_TEMPLATE_SIDE = 8;
+
+    private static volatile ForkJoinPool strategyPool;
+
+    private final Mat screen;
+    private final Mat template;
+
+    /**
+     * @param screen Preprocessed screen image
+     * @param template Preprocessed template image
+     */
+    public TemplateMatchEngine(Mat screen, Mat template) {
+        this.screen = screen;
+        this.template = template;
+    }
+
+    /**
+     * Single correlation pass over the full frame, other strategies re-scored around the best peak.
+     * Stops at the first strategy that meets its threshold.
+     * @param threshold Base matching threshold (0.0 to 1.0)
+     * @return Results in priority order (last entry is the successful one, if any)
+     */
+    public List<MatchResult> matchSinglePass(double threshold) {
+        List<MatchResult> results = new ArrayList<>();
+
+        MatchResult primary = evaluate(Strategy.CCOEFF_NORMED, threshold, null);
+        results.add(primary);
+        if (primary.point != null) {
+            return results;
+        }
+
+        rescoreAroundPeak(primary, threshold, results);
+        return results;
+    }
+
+    /**
+     * Coarse-to-fine search: primary strategy on downscaled levels, top-k candidates refined at full resolution.
+     * Falls back to single-pass matching when no pyramid level fits the template.
+     * @param threshold Base matching threshold (0.0 to 1.0)
+     * @return Results in priority order (last entry is the successful one, if any)
+     */
+    public List<MatchResult> matchPyramid(double threshold) {
+        int[] levels = TemplateConfig.getPyramidLevels();
+        int topK = TemplateConfig.getPyramidTopK();
+        int refineWindow = TemplateConfig.getPyramidRefineWindow();
+
+        List<Candidate> candidates = null;
+        double previousScale = 0;
+
+        for (int factor : levels) {
+            double scale = 1.0 / factor;
+            if (template.cols() * scale < MIN_PYRAMID_TEMPLATE_SIDE || template.rows() * scale < MIN_PYRAMID_TEMPLATE_SIDE) {
+                log.debug("Pyramid: skipping 1/{} level, template too small", factor);
+                continue;
+            }
+
+            Mat screenLevel = new Mat();
+            Mat templateLevel = new Mat();
+            try {
+                Imgproc.resize(screen, screenLevel, new Size(), scale, scale, Imgproc.INTER_AREA);
+                Imgproc.resize(template, templateLevel, new Size(), scale, scale, Imgproc.INTER_AREA);
+
+                if (candidates == null) {
+                    candidates = topPeaks(screenLevel, templateLevel, null, topK);
+                } else {
+                    candidates = refineCandidates(screenLevel, templateLevel, candidates, scale / previousScale,
+                                                  Math.max(2, (int) Math.round(refineWindow * scale)), topK);
+                }
+                log.debug("Pyramid: 1/{} level produced {} candidates", factor, candidates.size());
+            } finally {
+                screenLevel.release();
+                templateLevel.release();
+            }
+            previousScale = scale;
+        }
+
+        if (candidates == null || candidates.isEmpty()) {
+            log.debug("Pyramid: no usable level, falling back to single-pass matching");
+            return matchSinglePass(threshold);
+        }
+
+        // Refine each candidate window at full resolution and keep the best primary score
+        MatchResult primary = null;
+        for (Candidate candidate : candidates) {
+            Point location = new Point(candidate.location.x / previousScale, candidate.location.y / previousScale);
+            Rect window = peakWindow(location, refineWindow + (int) Math.ceil(1 / previousScale));
+            MatchResult result = evaluate(Strategy.CCOEFF_NORMED, threshold, window);
+            if (primary == null || result.confidence > primary.confidence) {
+                primary = result;
+            }
+        }
+
+        List<MatchResult> results = new ArrayList<>();
+        results.add(primary);
+        if (primary.point != null) {
+            return results;
+        }
+
+        rescoreAroundPeak(primary, threshold, results);
+        return results;
+    }
+
+    /**
+     * Re-score the secondary strategies on a padded window around the primary peak
+     */
+    private void rescoreAroundPeak(MatchResult primary, double threshold, List<MatchResult> results) {
+        Rect roi = primary.matchLocation != null ? peakWindow(primary.matchLocation, TemplateConfig.getMatchRoiMargin()) : null;
+        log.debug("Re-scoring secondary strategies in ROI {}", roi != null ? roi : "full frame");
+
+        for (Strategy strategy : new Strategy[]{Strategy.CCORR_NORMED, Strategy.SQDIFF_NORMED}) {
+            MatchResult result = evaluate(strategy, threshold, roi);
+            results.add(result);
+            if (result.point != null) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Legacy mode: every strategy correlates the full frame.
+     * Stops at the first strategy that meets its threshold.
+     * @param threshold Base matching threshold (0.0 to 1.0)
+     * @return Results in priority order (last entry is the successful one, if any)
+     */
+    public List<MatchResult> matchFullFrame(double threshold) {
+        List<MatchResult> results = new ArrayList<>();
+        for (Strategy strategy : Strategy.values()) {
+            MatchResult result = evaluate(strategy, threshold, null);
+            results.add(result);
+            if (result.point != null) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Every strategy correlates the full frame at the same time; results are then applied in priority order.
+     * Same outcome as matchFullFrame, but a miss costs about one strategy instead of three.
+     * Each task holds its own headers on the screen and template pixels, so tasks still running after
+     * an early return keep the data alive until they finish; tasks not yet started are cancelled.
+     * @param threshold Base matching threshold (0.0 to 1.0)
+     * @return Results in priority order (last entry is the successful one, if any)
+     */
+    public List<MatchResult> matchParallel(double threshold) {
+        List<ForkJoinTask<MatchResult>> tasks = new ArrayList<>();
+        List<StrategyViews> views = new ArrayList<>();
+        for (Strategy strategy : Strategy.values()) {
+            StrategyViews view = new StrategyViews(screen, template);
+            views.add(view);
+            tasks.add(strategyPool().submit(() -> {
+                if (!view.claim()) {
+                    return new MatchResult(null, null, 0.0, strategy);  // Skipped: a higher-priority strategy matched
+                }
+                try {
+                    return new TemplateMatchEngine(view.screen, view.template).evaluate(strategy, threshold, null);
+                } finally {
+                    view.release();
+                }
+            }));
+        }
+
+        List<MatchResult> results = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            MatchResult result = tasks.get(i).join();  // evaluate() never throws
+            results.add(result);
+            if (result.point != null) {
+                // Lower-priority strategies are no longer needed: drop the ones that have not started
+                for (int j = i + 1; j < tasks.size(); j++) {
+                    if (views.get(j).claim()) {
+                        views.get(j).release();
+                    }
+                }
+                break;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Headers on the screen and template pixels owned by one parallel strategy task, released by
+     * whichever side claims them first (the task when it starts, or matchParallel when it is skipped)
+     */
+    private static class StrategyViews {
+        final Mat screen;
+        final Mat template;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        StrategyViews(Mat screen, Mat template) {
+            this.screen = screen.submat(0, screen.rows(), 0, screen.cols());
+            this.template = template.submat(0, template.rows(), 0, template.cols());
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        void release() {
+            screen.release();
+            template.release();
+        }
+    }
+
+    private static ForkJoinPool strategyPool() {
+        if (strategyPool == null) {
+            synchronized (TemplateMatchEngine.class) {
+                if (strategyPool == null) {
+                    int threads = TemplateConfig.getParallelMatchThreads();
+                    strategyPool = new ForkJoinPool(threads);
+                    log.info("Parallel OpenCV strategy pool started ({} threads)", threads);
+                }
+            }
+        }
+        return strategyPool;
+    }
+
+    /**
+     * Run one strategy on the full frame or on a region of interest
+     * @param strategy Strategy to run
+     * @param baseThreshold Base threshold (strategy-specific threshold is derived from it)
+     * @param roi Region of the screen to search (null for full frame)
+     */
+    public MatchResult evaluate(Strategy strategy, double baseThreshold, Rect roi) {
+        double threshold = strategy.threshold(baseThreshold);
+        Mat searchArea = roi != null ? screen.submat(roi) : screen;
+        try {
+            Mat result = new Mat();
+            Imgproc.matchTemplate(searchArea, template, result, strategy.method);
+
+            // Find best match
+            Core.MinMaxLocResult mmr = Core.minMaxLoc(result);
+            result.release();
+
+            double confidence = strategy.inverse ? mmr.minVal : mmr.maxVal;
+            Point local = strategy.inverse ? mmr.minLoc : mmr.maxLoc;
+            Point matchLocation = roi != null ? new Point(local.x + roi.x, local.y + roi.y) : local;
+
+            boolean isMatch = strategy.inverse ? (confidence <= threshold) : (confidence >= threshold);
+
+            log.debug("Template matching result - Method: {}, Confidence: {}, Threshold: {}, Match: {}, ROI: {}",
+                     strategy.methodName, confidence, threshold, isMatch, roi != null);
+
+            Point center = isMatch ? new Point(
+                matchLocation.x + template.cols() / 2,
+                matchLocation.y + template.rows() / 2
+            ) : null;
+
+            // Even for failures, keep the best match location found (for debug visualization)
+            return new MatchResult(center, matchLocation, confidence, strategy);
+
+        } catch (Exception e) {
+            log.debug("Template matching failed for method {}: {}", strategy.methodName, e.getMessage());
+            return new MatchResult(null, null, 0.0, strategy);
+        } finally {
+            if (roi != null) {
+                searchArea.release();
+            }
+        }
+    }
+
+    /**
+     * Window of template size plus margin around a peak, clipped to the screen
+     */
+    private Rect peakWindow(Point peak, int margin) {
+        return window(screen, template, peak, margin);
+    }
+
+    private static Rect window(Mat image, Mat templ, Point peak, int margin) {
+        int x = Math.max(0, (int) peak.x - margin);
+        int y = Math.max(0, (int) peak.y - margin);
+        int right = Math.min(image.cols(), (int) peak.x + templ.cols() + margin);
+        int bottom = Math.min(image.rows(), (int) peak.y + templ.rows() + margin);
+
+        if (right - x < templ.cols() || bottom - y < templ.rows()) {
+            return null;  // Not enough room for the template, fall back to full frame
+        }
+        return new Rect(x, y, right - x, bottom - y);
+    }
+
+    /**
+     * Best k non-overlapping TM_CCOEFF_NORMED peaks of a template inside an image (or a region of it)
+     */
+    private static List<Candidate> topPeaks(Mat image, Mat templ, Rect roi, int k) {
+        List<Candidate> peaks = new ArrayList<>();
+        Mat searchArea = roi != null ? image.submat(roi) : image;
+        Mat result = new Mat();
+        try {
+            Imgproc.matchTemplate(searchArea, templ, result, Imgproc.TM_CCOEFF_NORMED);
+            for (int i = 0; i < k; i++) {
+                Core.MinMaxLocResult mmr = Core.minMaxLoc(result);
+                if (mmr.maxVal <= -1.0) {
+                    break;
+                }
+                Point local = mmr.maxLoc;
+                peaks.add(new Candidate(roi != null ? new Point(local.x + roi.x, local.y + roi.y) : local, mmr.maxVal));
+
+                // Suppress the neighbourhood of this peak so the next one is a different window
+                Imgproc.rectangle(result,
+                                  new Point(local.x - templ.cols() / 2.0, local.y - templ.rows() / 2.0),
+                                  new Point(local.x + templ.cols() / 2.0, local.y + templ.rows() / 2.0),
+                                  new Scalar(-1.0), -1);
+            }
+        } catch (Exception e) {
+            log.debug("Pyramid peak search failed: {}", e.getMessage());
+        } finally {
+            result.release();
+            if (roi != null) {
+                searchArea.release();
+            }
+        }
+        return peaks;
+    }
+
+    /**
+     * Project candidates from the previous level and re-search a small window around each one
+     */
+    private static List<Candidate> refineCandidates(Mat image, Mat templ, List<Candidate> previous,
+                                                    double ratio, int margin, int k) {
+        List<Candidate> refined = new ArrayList<>();
+        for (Candidate candidate : previous) {
+            Point projected = new Point(candidate.location.x * ratio, candidate.location.y * ratio);
+            Rect roi = window(image, templ, projected, margin + (int) Math.ceil(ratio));
+            refined.addAll(topPeaks(image, templ, roi, 1));
+        }
+        refined.sort(Comparator.comparingDouble((Candidate c) -> c.score).reversed());
+        return refined.size() > k ? new ArrayList<>(refined.subList(0, k)) : refined;
+    }
+
+    /**
+     * Candidate top-left location at some pyramid level
+     */
+    private static class Candidate {
+        final Point location;
+        final double score;
+
+        Candidate(Point location, double score) {
+            this.location = location;
+            this.score = score;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.test.channelplay.mobile.config_Helper;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.openqa.selenium.Rectangle;
@@ -21,7 +22,11 @@ public class TemplateMetadata {
     private static final Logger log = LoggerFactory.getLogger(TemplateMetadata.class);
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    // Bump when a new migration is added to migrate(); sidecars at this version load without migration
+    public static final int CURRENT_SCHEMA_VERSION = 2;
+
     // Core metadata
+    public int schemaVersion;  // 0 = written before schema versioning
     public String templatePath;
     public String hash;
     public int width;
@@ -34,6 +39,7 @@ public class TemplateMetadata {
     // Visual fingerprint
     public List<String> dominantColors;
     public RelativePosition relativePosition;
+    public CaptureGeometry capture;  // Screen the template was cut from (used to rescale on other devices)
     public int pixelDensity;
     public boolean hasText;
     public boolean hasIcon;
@@ -54,6 +60,10 @@ public class TemplateMetadata {
     public ContextInfo context = new ContextInfo();
     public List<String> tags = new ArrayList<>();
 
+    // Updates are written by TemplateMetadataRegistry's flusher instead of on every attempt
+    @JsonIgnore
+    private boolean writeBehind;
+
     public TemplateMetadata() {
         this.capturedDate = new Date();
         this.lastUsed = new Date();
@@ -65,7 +75,19 @@ public class TemplateMetadata {
     public static TemplateMetadata createFromImage(String templatePath, BufferedImage image,
                                                    String elementName, String elementType,
                                                    Rectangle elementBounds, Dimension screenSize) {
+        return createFromImage(templatePath, image, elementName, elementType, elementBounds, screenSize, 0);
+    }
+
+    /**
+     * Create metadata from image and element info, recording the capture screen density
+     * @param screenDensity Capture device density in dpi (0 if unknown)
+     */
+    public static TemplateMetadata createFromImage(String templatePath, BufferedImage image,
+                                                   String elementName, String elementType,
+                                                   Rectangle elementBounds, Dimension screenSize,
+                                                   int screenDensity) {
         TemplateMetadata metadata = new TemplateMetadata();
+        metadata.schemaVersion = CURRENT_SCHEMA_VERSION;
 
         try {
             metadata.templatePath = templatePath;
@@ -93,6 +115,11 @@ public class TemplateMetadata {
                 );
             }
 
+            // Capture geometry for scale-invariant matching
+            if (screenSize != null) {
+                metadata.capture = new CaptureGeometry(screenSize.width, screenSize.height, screenDensity);
+            }
+
             // Analyze image characteristics
             metadata.pixelDensity = calculatePixelDensity(image);
             metadata.hasText = detectTextPresence(image);
@@ -141,10 +168,26 @@ public class TemplateMetadata {
         }
     }
 
+    /**
+     * Save now, or leave it to the registry flusher when write-behind is enabled
+     */
+    void persist() {
+        if (writeBehind) {
+            TemplateMetadataRegistry.markDirty(this);
+        } else {
+            save();
+        }
+    }
+
+    @JsonIgnore
+    void setWriteBehind(boolean writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
     /**
      * Update performance metrics
      */
-    public void recordUsage(boolean success) {
+    public synchronized void recordUsage(boolean success) {
         if (success) {
             successCount++;
         } else {
@@ -155,7 +198,7 @@ public class TemplateMetadata {
         int total = successCount + failureCount;
         successRate = total > 0 ? (double) successCount / total : 0.0;
 
-        save();
+        persist();
     }
 
     /**
@@ -298,46 +341,15 @@ public class TemplateMetadata {
     }
 
     private static String generateImageHash(BufferedImage image) {
-        // Use same perceptual hash as VisualTemplateIndex
+        // Use same fingerprint service as VisualTemplateIndex (hash keeps the average-hash binary format)
         try {
-            BufferedImage resized = resizeImage(image, 8, 8);
-            StringBuilder hashBuilder = new StringBuilder();
-            int total = 0;
-
-            for (int y = 0; y < 8; y++) {
-                for (int x = 0; x < 8; x++) {
-                    int rgb = resized.getRGB(x, y);
-                    int gray = (((rgb >> 16) & 0xFF) + ((rgb >> 8) & 0xFF) + (rgb & 0xFF)) / 3;
-                    total += gray;
-                }
-            }
-
-            int average = total / 64;
-
-            for (int y = 0; y < 8; y++) {
-                for (int x = 0; x < 8; x++) {
-                    int rgb = resized.getRGB(x, y);
-                    int gray = (((rgb >> 16) & 0xFF) + ((rgb >> 8) & 0xFF) + (rgb & 0xFF)) / 3;
-                    hashBuilder.append(gray > average ? "1" : "0");
-                }
-            }
-
-            return hashBuilder.toString();
-
+            return VisualFingerprint.of(image).toBinaryString();
         } catch (Exception e) {
             log.error("Failed to generate image hash: {}", e.getMessage());
             return UUID.randomUUID().toString();
         }
     }
 
-    private static BufferedImage resizeImage(BufferedImage original, int width, int height) {
-        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g = resized.createGraphics();
-        g.drawImage(original, 0, 0, width, height, null);
-        g.dispose();
-        return resized;
-    }
-
     private static List<String> extractDominantColors(BufferedImage image) {
         Map<String, Integer> colorFrequency = new HashMap<>();
 
@@ -423,6 +435,37 @@ public class TemplateMetadata {
         }
     }
 
+    /**
+     * Screen geometry of the device a template was captured on
+     */
+    public static class CaptureGeometry {
+        public int screenWidth;
+        public int screenHeight;
+        public int density;  // dpi, 0 if unknown
+
+        public CaptureGeometry() {}
+
+        public CaptureGeometry(int screenWidth, int screenHeight, int density) {
+            this.screenWidth = screenWidth;
+            this.screenHeight = screenHeight;
+            this.density = density;
+        }
+
+        /**
+         * Reference device that templates without recorded geometry were captured on
+         */
+        public static CaptureGeometry reference() {
+            return new CaptureGeometry(TemplateConfig.getCaptureReferenceWidth(),
+                                       TemplateConfig.getCaptureReferenceHeight(),
+                                       TemplateConfig.getCaptureReferenceDpi());
+        }
+
+        @Override
+        public String toString() {
+            return screenWidth + "x" + screenHeight + (density > 0 ? " @ " + density + " dpi" : "");
+        }
+    }
+
     // ========== ENHANCED: Inner Classes for Advanced Tracking ==========
 
     /**
@@ -578,82 +621,25 @@ public class TemplateMetadata {
 
     /**
      * Load or create metadata (enhanced version with auto-migration)
+     *
+     * Sidecars already at CURRENT_SCHEMA_VERSION skip the migrations; run TemplateMetadataMigrator
+     * once to upgrade the whole library up front.
      */
     public static TemplateMetadata loadOrCreate(String templatePath) {
         TemplateMetadata metadata = load(templatePath);
 
         if (metadata != null) {
-            boolean needsSave = false;
-
-            // ========== MIGRATION 1: Fix wrong templatePath ==========
-            if (!metadata.templatePath.equals(templatePath)) {
-                log.warn("Fixing wrong templatePath: {} -> {}", metadata.templatePath, templatePath);
-                metadata.templatePath = templatePath;
-                needsSave = true;
-            }
-
-            // ========== MIGRATION 2: Convert old flat structure to new nested ==========
-            if (metadata.usage.totalAttempts == 0 && (metadata.successCount > 0 || metadata.failureCount > 0)) {
-                log.debug("Migrating old flat structure to new nested structure for: {}", templatePath);
-                metadata.usage.successCount = metadata.successCount;
-                metadata.usage.failureCount = metadata.failureCount;
-                metadata.usage.successRate = metadata.successRate;
-                metadata.usage.lastUsed = metadata.lastUsed != null ? metadata.lastUsed.getTime() : 0;
-                metadata.usage.totalAttempts = metadata.successCount + metadata.failureCount;
-                needsSave = true;
-            }
-
-            // ========== MIGRATION 3: Initialize missing enhanced fields ==========
-            if (metadata.performance == null) {
-                metadata.performance = new PerformanceMetrics();
-                needsSave = true;
-            }
-            if (metadata.health == null) {
-                metadata.health = new HealthStatus();
-                needsSave = true;
-            }
-            if (metadata.context == null) {
-                metadata.context = new ContextInfo();
-                needsSave = true;
-            }
-            if (metadata.tags == null) {
-                metadata.tags = new ArrayList<>();
-                needsSave = true;
-            }
-
-            // ========== MIGRATION 4: Set context.elementType from old elementType field ==========
-            if (metadata.context.elementType == null || metadata.context.elementType.isEmpty()) {
-                if (metadata.elementType != null && !metadata.elementType.isEmpty()) {
-                    metadata.context.elementType = metadata.elementType;
-                    needsSave = true;
+            if (metadata.schemaVersion >= CURRENT_SCHEMA_VERSION) {
+                // Cheap location fix only (templates move during folder rotation)
+                if (!templatePath.equals(metadata.templatePath)) {
+                    log.warn("Fixing wrong templatePath: {} -> {}", metadata.templatePath, templatePath);
+                    metadata.templatePath = templatePath;
+                    metadata.save();
                 }
+                return metadata;
             }
 
-            // ========== MIGRATION 5: Recalculate hasText and hasIcon from actual image ==========
-            try {
-                Path imagePath = Paths.get(templatePath);
-                if (Files.exists(imagePath)) {
-                    BufferedImage image = ImageIO.read(imagePath.toFile());
-                    if (image != null) {
-                        boolean newHasText = detectTextPresence(image);
-                        boolean newHasIcon = detectIconPresence(image);
-
-                        // Only update if values changed
-                        if (metadata.hasText != newHasText || metadata.hasIcon != newHasIcon) {
-                            log.debug("Recalculating hasText/hasIcon for: {} (hasText: {} -> {}, hasIcon: {} -> {})",
-                                templatePath, metadata.hasText, newHasText, metadata.hasIcon, newHasIcon);
-                            metadata.hasText = newHasText;
-                            metadata.hasIcon = newHasIcon;
-                            needsSave = true;
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                log.debug("Could not recalculate hasText/hasIcon for {}: {}", templatePath, e.getMessage());
-            }
-
-            // Save if any migration occurred
-            if (needsSave) {
+            if (metadata.migrate(templatePath)) {
                 metadata.save();
                 log.info("Auto-migrated metadata for: {}", templatePath);
             }
@@ -663,6 +649,7 @@ public class TemplateMetadata {
 
         // Create new metadata if doesn't exist
         metadata = new TemplateMetadata();
+        metadata.schemaVersion = CURRENT_SCHEMA_VERSION;
         metadata.templatePath = templatePath;
         metadata.capturedDate = new Date();
         metadata.lastUsed = new Date();
@@ -677,10 +664,102 @@ public class TemplateMetadata {
         return metadata;
     }
 
+    /**
+     * Upgrade a sidecar written with an older schema to CURRENT_SCHEMA_VERSION
+     * @param templatePath Actual path of the template image
+     * @return true if anything changed (caller saves)
+     */
+    boolean migrate(String templatePath) {
+        boolean needsSave = false;
+
+        // ========== MIGRATION 1: Fix wrong templatePath ==========
+        if (!templatePath.equals(this.templatePath)) {
+            log.warn("Fixing wrong templatePath: {} -> {}", this.templatePath, templatePath);
+            this.templatePath = templatePath;
+            needsSave = true;
+        }
+
+        // ========== MIGRATION 2: Convert old flat structure to new nested ==========
+        if (usage == null) {
+            usage = new UsageStats();
+            needsSave = true;
+        }
+        if (usage.totalAttempts == 0 && (successCount > 0 || failureCount > 0)) {
+            log.debug("Migrating old flat structure to new nested structure for: {}", templatePath);
+            usage.successCount = successCount;
+            usage.failureCount = failureCount;
+            usage.successRate = successRate;
+            usage.lastUsed = lastUsed != null ? lastUsed.getTime() : 0;
+            usage.totalAttempts = successCount + failureCount;
+            needsSave = true;
+        }
+
+        // ========== MIGRATION 3: Initialize missing enhanced fields ==========
+        if (performance == null) {
+            performance = new PerformanceMetrics();
+            needsSave = true;
+        }
+        if (health == null) {
+            health = new HealthStatus();
+            needsSave = true;
+        }
+        if (context == null) {
+            context = new ContextInfo();
+            needsSave = true;
+        }
+        if (tags == null) {
+            tags = new ArrayList<>();
+            needsSave = true;
+        }
+
+        // ========== MIGRATION 4: Set context.elementType from old elementType field ==========
+        if (context.elementType == null || context.elementType.isEmpty()) {
+            if (elementType != null && !elementType.isEmpty()) {
+                context.elementType = elementType;
+                needsSave = true;
+            }
+        }
+
+        // ========== MIGRATION 5: Recalculate hasText and hasIcon from actual image ==========
+        try {
+            Path imagePath = Paths.get(templatePath);
+            if (Files.exists(imagePath)) {
+                BufferedImage image = ImageIO.read(imagePath.toFile());
+                if (image != null) {
+                    boolean newHasText = detectTextPresence(image);
+                    boolean newHasIcon = detectIconPresence(image);
+
+                    // Only update if values changed
+                    if (hasText != newHasText || hasIcon != newHasIcon) {
+                        log.debug("Recalculating hasText/hasIcon for: {} (hasText: {} -> {}, hasIcon: {} -> {})",
+                            templatePath, hasText, newHasText, hasIcon, newHasIcon);
+                        hasText = newHasText;
+                        hasIcon = newHasIcon;
+                        needsSave = true;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Could not recalculate hasText/hasIcon for {}: {}", templatePath, e.getMessage());
+        }
+
+        // ========== MIGRATION 6: Record capture geometry (legacy templates come from the reference device) ==========
+        if (capture == null) {
+            capture = CaptureGeometry.reference();
+            needsSave = true;
+        }
+
+        if (schemaVersion < CURRENT_SCHEMA_VERSION) {
+            schemaVersion = CURRENT_SCHEMA_VERSION;
+            needsSave = true;
+        }
+        return needsSave;
+    }
+
     /**
      * Record successful match with details
      */
-    public void recordSuccess(String strategy, double confidence, long matchTime) {
+    public synchronized void recordSuccess(String strategy, double confidence, long matchTime) {
         // Update basic metrics (backward compatible)
         recordUsage(true);
 
@@ -699,13 +778,13 @@ public class TemplateMetadata {
         long templateAge = System.currentTimeMillis() - capturedDate.getTime();
         health.checkHealth(usage, performance, successRate, lastUsed.getTime(), templateAge);
 
-        save();
+        persist();
     }
 
     /**
      * Record failed match
      */
-    public void recordFailure(String strategy, long matchTime) {
+    public synchronized void recordFailure(String strategy, long matchTime) {
         // Update basic metrics (backward compatible)
         recordUsage(false);
 
@@ -722,16 +801,16 @@ public class TemplateMetadata {
         long templateAge = System.currentTimeMillis() - capturedDate.getTime();
         health.checkHealth(usage, performance, successRate, lastUsed.getTime(), templateAge);
 
-        save();
+        persist();
     }
 
     /**
      * Add tag for categorization
      */
-    public void addTag(String tag) {
+    public synchronized void addTag(String tag) {
         if (!tags.contains(tag)) {
             tags.add(tag);
-            save();
+            persist();
         }
     }
 
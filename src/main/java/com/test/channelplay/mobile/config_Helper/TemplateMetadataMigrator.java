@@ -0,0 +1,114 @@
+package com.test.channelplay.mobile.config_Helper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * One-time batch upgrade of template metadata sidecars to TemplateMetadata.CURRENT_SCHEMA_VERSION
+ *
+ * Walks the templates folder and migrates every outdated JSON sidecar in parallel on a fork-join pool.
+ * Once the library is upgraded, TemplateMetadata.loadOrCreate skips migration (no image decoding on load).
+ *
+ * Usage:
+ *   TemplateMetadataMigrator.migrateAll("templates");
+ *   or CLI: TemplateMetadataMigrator [templatesFolder] [parallelism]
+ */
+public class TemplateMetadataMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplateMetadataMigrator.class);
+    private static final String TEMPLATES_BASE = "templates";
+
+    /**
+     * Migrate all sidecars under the folder using one worker per available processor
+     * @return Number of sidecars upgraded
+     */
+    public static int migrateAll(String templatesFolder) {
+        return migrateAll(templatesFolder, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Migrate all sidecars under the folder
+     * @param templatesFolder Root templates folder
+     * @param parallelism Fork-join pool size
+     * @return Number of sidecars upgraded
+     */
+    public static int migrateAll(String templatesFolder, int parallelism) {
+        long startTime = System.currentTimeMillis();
+        List<Path> sidecars;
+        try (Stream<Path> paths = Files.walk(Paths.get(templatesFolder))) {
+            sidecars = paths
+                    .filter(Files::isRegularFile)
+                    .filter(path -> path.toString().endsWith(".json"))
+                    .filter(path -> !path.toString().contains("visual_index"))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.error("Failed to scan templates for migration: {}", e.getMessage());
+            return 0;
+        }
+
+        AtomicInteger upgraded = new AtomicInteger();
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            pool.submit(() -> sidecars.parallelStream().forEach(sidecar -> {
+                String templatePath = findTemplateImage(sidecar);
+                TemplateMetadata metadata = TemplateMetadata.load(templatePath);
+                if (metadata == null) {
+                    failed.incrementAndGet();
+                    log.debug("Skipping unreadable metadata: {}", sidecar);
+                    return;
+                }
+                if (metadata.schemaVersion >= TemplateMetadata.CURRENT_SCHEMA_VERSION) {
+                    current.incrementAndGet();
+                    return;
+                }
+
+                metadata.migrate(templatePath);
+                metadata.save();
+                upgraded.incrementAndGet();
+            })).get();
+        } catch (Exception e) {
+            log.error("Template metadata migration failed: {}", e.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+
+        log.info("Template metadata migration: {} upgraded, {} already current, {} skipped in {}ms (parallelism {})",
+                 upgraded.get(), current.get(), failed.get(), System.currentTimeMillis() - startTime, parallelism);
+        return upgraded.get();
+    }
+
+    /**
+     * Template image next to a sidecar (same name, image extension)
+     */
+    private static String findTemplateImage(Path sidecar) {
+        String base = sidecar.toString().replaceAll("\\.json$", "");
+        for (String extension : new String[]{".png", ".jpg", ".jpeg"}) {
+            if (Files.exists(Paths.get(base + extension))) {
+                return base + extension;
+            }
+        }
+        return base + ".png";
+    }
+
+    /**
+     * CLI entry point
+     */
+    public static void main(String[] args) {
+        String folder = args.length > 0 ? args[0] : TEMPLATES_BASE;
+        int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        migrateAll(folder, parallelism);
+    }
+}
@@ -0,0 +1,148 @@
+package com.test.channelplay.mobile.config_Helper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory registry of template metadata with write-behind persistence
+ *
+ * Each template's JSON sidecar is loaded (and migrated) once per run. Usage updates only mark
+ * the in-memory metadata dirty; a background flusher writes dirty entries every
+ * template.metadata.flush.interval.ms, coalescing many attempts into one write.
+ * Call flush() at scenario end to persist everything; a JVM shutdown hook flushes as a safety net.
+ *
+ * When write-behind is disabled, metadata is still cached but every update is saved immediately.
+ */
+public class TemplateMetadataRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplateMetadataRegistry.class);
+
+    private static final Map<String, TemplateMetadata> registry = new ConcurrentHashMap<>();
+    private static final Set<TemplateMetadata> dirty = ConcurrentHashMap.newKeySet();
+
+    private static final AtomicLong updates = new AtomicLong();
+    private static final AtomicLong writes = new AtomicLong();
+
+    private static volatile ScheduledExecutorService flusher;
+
+    /**
+     * Get metadata for a template, loading and migrating the sidecar on first use
+     * @param templatePath Path to template image
+     * @return Shared metadata instance (same object for every caller in this run)
+     */
+    public static TemplateMetadata get(String templatePath) {
+        TemplateMetadata metadata = registry.computeIfAbsent(templatePath, path -> {
+            TemplateMetadata loaded = TemplateMetadata.loadOrCreate(path);
+            loaded.setWriteBehind(TemplateConfig.isMetadataWriteBehindEnabled());
+            return loaded;
+        });
+        startFlusher();
+        return metadata;
+    }
+
+    /**
+     * Make newly created metadata the shared instance for its template and persist it
+     * (a cached copy loaded earlier is dropped, so a later flush cannot write it over the new sidecar)
+     * @return The registered instance
+     */
+    public static TemplateMetadata register(TemplateMetadata metadata) {
+        metadata.setWriteBehind(TemplateConfig.isMetadataWriteBehindEnabled());
+        TemplateMetadata previous = registry.put(metadata.templatePath, metadata);
+        if (previous != null && previous != metadata) {
+            synchronized (previous) {  // Waits for a flush of the old copy already in progress
+                dirty.remove(previous);
+            }
+        }
+        metadata.persist();
+        startFlusher();
+        return metadata;
+    }
+
+    /**
+     * Mark metadata as changed; it will be written by the next flush
+     */
+    static void markDirty(TemplateMetadata metadata) {
+        updates.incrementAndGet();
+        dirty.add(metadata);
+    }
+
+    /**
+     * Write all dirty metadata to disk now
+     * @return Number of sidecar files written
+     */
+    public static int flush() {
+        List<TemplateMetadata> pending = new ArrayList<>(dirty);
+        int written = 0;
+
+        for (TemplateMetadata metadata : pending) {
+            // Remove before saving so updates that land during the write mark it dirty again
+            dirty.remove(metadata);
+            synchronized (metadata) {
+                metadata.save();
+            }
+            written++;
+        }
+
+        if (written > 0) {
+            writes.addAndGet(written);
+            log.debug("Flushed {} template metadata files", written);
+        }
+        return written;
+    }
+
+    /**
+     * Flush and forget all cached metadata (next get() reloads from disk)
+     */
+    public static void clear() {
+        flush();
+        registry.clear();
+    }
+
+    private static void startFlusher() {
+        if (flusher != null || !TemplateConfig.isMetadataWriteBehindEnabled()) {
+            return;
+        }
+        synchronized (TemplateMetadataRegistry.class) {
+            if (flusher != null) {
+                return;
+            }
+            long intervalMs = TemplateConfig.getMetadataFlushIntervalMs();
+            ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "template-metadata-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(() -> {
+                try {
+                    flush();
+                } catch (Exception e) {
+                    log.warn("Background metadata flush failed: {}", e.getMessage());
+                }
+            }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+
+            Runtime.getRuntime().addShutdownHook(new Thread(TemplateMetadataRegistry::flush, "template-metadata-final-flush"));
+            flusher = executor;
+            log.info("Template metadata write-behind started (flush every {}ms)", intervalMs);
+        }
+    }
+
+    /**
+     * Log registry statistics
+     */
+    public static void logStats() {
+        long updateCount = updates.get();
+        long writeCount = writes.get();
+        log.info("Template metadata registry: {} cached, {} dirty, {} updates coalesced into {} writes",
+                 registry.size(), dirty.size(), updateCount, writeCount);
+    }
+}
@@ -0,0 +1,127 @@
+package com.test.channelplay.mobile.config_Helper;
+
+import io.appium.java_client.AppiumDriver;
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+import org.openqa.selenium.Dimension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Scale factors for matching templates on a device other than the one they were captured on
+ *
+ * Android lays out UI in density-independent pixels, so an element's size in screenshot pixels
+ * follows the screen density: expected scale = live dpi / capture dpi. When either density is
+ * unknown the ratio of screen widths is used instead. A small bounded set of multipliers around
+ * the expected scale (template.match.scale.steps) absorbs rounding and font-scale differences.
+ */
+public class TemplateScaler {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplateScaler.class);
+
+    // Scales closer than this are treated as the same (and 1:1 within it needs no resize)
+    private static final double SCALE_TOLERANCE = 0.01;
+    private static final double MIN_SCALE = 0.25;
+    private static final double MAX_SCALE = 4.0;
+
+    private static final Map<AppiumDriver, TemplateMetadata.CaptureGeometry> liveGeometry =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Geometry of the device behind a driver (queried once per driver)
+     * Width and height come from window().getSize(); density from "mobile: deviceInfo" on Android
+     */
+    public static TemplateMetadata.CaptureGeometry liveGeometry(AppiumDriver driver) {
+        return liveGeometry.computeIfAbsent(driver, d -> {
+            Dimension size = d.manage().window().getSize();
+            TemplateMetadata.CaptureGeometry geometry = new TemplateMetadata.CaptureGeometry(size.width, size.height, queryDensity(d));
+            log.info("Live device geometry: {}", geometry);
+            return geometry;
+        });
+    }
+
+    private static int queryDensity(AppiumDriver driver) {
+        try {
+            Object info = driver.executeScript("mobile: deviceInfo");
+            if (info instanceof Map) {
+                Object density = ((Map<?, ?>) info).get("displayDensity");
+                if (density instanceof Number) {
+                    return ((Number) density).intValue();
+                }
+                if (density != null) {
+                    return Integer.parseInt(density.toString().trim());
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Screen density not available from driver: {}", e.getMessage());
+        }
+        return 0;
+    }
+
+    /**
+     * Expected size ratio of an element on the live device compared to the capture device
+     * @param capture Capture geometry (null = reference device)
+     */
+    public static double expectedScale(TemplateMetadata.CaptureGeometry capture, TemplateMetadata.CaptureGeometry live) {
+        if (capture == null) {
+            capture = TemplateMetadata.CaptureGeometry.reference();
+        }
+        if (capture.density > 0 && live.density > 0) {
+            return (double) live.density / capture.density;
+        }
+        if (capture.screenWidth > 0 && live.screenWidth > 0) {
+            return (double) live.screenWidth / capture.screenWidth;
+        }
+        return 1.0;
+    }
+
+    /**
+     * Scales to try, in priority order: expected scale times each configured step, then native 1:1
+     * @return Distinct scales (first entry is the most likely one)
+     */
+    public static List<Double> candidateScales(TemplateMetadata.CaptureGeometry capture, TemplateMetadata.CaptureGeometry live) {
+        double expected = expectedScale(capture, live);
+        List<Double> scales = new ArrayList<>();
+        for (double step : TemplateConfig.getScaleMatchSteps()) {
+            addScale(scales, expected * step);
+        }
+        addScale(scales, 1.0);
+        return scales;
+    }
+
+    private static void addScale(List<Double> scales, double scale) {
+        if (scale < MIN_SCALE || scale > MAX_SCALE) {
+            return;
+        }
+        for (double existing : scales) {
+            if (Math.abs(existing - scale) < SCALE_TOLERANCE) {
+                return;
+            }
+        }
+        scales.add(scale);
+    }
+
+    /**
+     * Check whether a scale is close enough to 1:1 to match the template as captured
+     */
+    public static boolean isNative(double scale) {
+        return Math.abs(scale - 1.0) < SCALE_TOLERANCE;
+    }
+
+    /**
+     * Resize a template (INTER_AREA when shrinking, INTER_LINEAR when enlarging)
+     * @return New Mat owned by the caller
+     */
+    public static Mat resize(Mat template, double scale) {
+        Mat scaled = new Mat();
+        Imgproc.resize(template, scaled, new Size(), scale, scale, scale < 1.0 ? Imgproc.INTER_AREA : Imgproc.INTER_LINEAR);
+        return scaled;
+    }
+}
@@ -0,0 +1,509 @@
+package com.test.channelplay.mobile.config_Helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Optional single-file template store (memory-mapped)
+ *
+ * Holds, per template: visual fingerprint, preprocessed grayscale pixels (ready for matchTemplate)
+ * and the metadata JSON, so startup and lookups need no directory walks or PNG decoding.
+ * The loose PNG + JSON files stay the source of truth; the store is a read-optimized copy.
+ *
+ * File layout (big-endian):
+ *   header:  int magic, int formatVersion, long indexOffset, long logStart
+ *   records: compacted template records
+ *   index:   int count, then (path, long recordOffset) per live template
+ *   log:     records appended after the last compaction (new captures, updates, removals)
+ *
+ * Record: int length, byte type, path, then for templates:
+ *   long sourceModified, long aHash, long dHash, long pHash, int width, int height,
+ *   int metadataLength, metadata JSON, width*height pixel bytes
+ *
+ * Usage:
+ *   TemplateStore store = TemplateStore.shared();  // null when template.store.enabled is false
+ *   Mat template = store.loadPreprocessed(templatePath);
+ *   CLI: TemplateStore build [templatesFolder] | compact
+ */
+public class TemplateStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplateStore.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final int MAGIC = 0x54504C53;  // "TPLS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+    private static final byte TYPE_TEMPLATE = 1;
+    private static final byte TYPE_REMOVED = 2;
+
+    private static volatile TemplateStore shared;
+
+    private final Path storePath;
+    private final Map<String, Entry> index = new LinkedHashMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long logEnd;
+
+    /**
+     * Stored template (pixels and metadata stay in the mapped file until requested)
+     */
+    public static class Entry {
+        public final String templatePath;
+        public final long sourceModified;
+        public final VisualFingerprint fingerprint;
+        public final int width;
+        public final int height;
+        private final long metadataOffset;
+        private final int metadataLength;
+        private final long pixelOffset;
+
+        Entry(String templatePath, long sourceModified, VisualFingerprint fingerprint, int width, int height,
+              long metadataOffset, int metadataLength, long pixelOffset) {
+            this.templatePath = templatePath;
+            this.sourceModified = sourceModified;
+            this.fingerprint = fingerprint;
+            this.width = width;
+            this.height = height;
+            this.metadataOffset = metadataOffset;
+            this.metadataLength = metadataLength;
+            this.pixelOffset = pixelOffset;
+        }
+    }
+
+    private TemplateStore(Path storePath) throws IOException {
+        this.storePath = storePath;
+        open();
+    }
+
+    /**
+     * Shared store at template.store.path, or null when the store is disabled or cannot be opened
+     */
+    public static TemplateStore shared() {
+        if (!TemplateConfig.isTemplateStoreEnabled()) {
+            return null;
+        }
+        TemplateStore store = shared;
+        if (store == null) {
+            synchronized (TemplateStore.class) {
+                store = shared;
+                if (store == null) {
+                    try {
+                        store = new TemplateStore(Paths.get(TemplateConfig.getTemplateStorePath()));
+                        shared = store;
+                    } catch (IOException e) {
+                        log.warn("Template store unavailable, using template files: {}", e.getMessage());
+                        return null;
+                    }
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Open (or create) a store file
+     */
+    public static TemplateStore open(String storePath) throws IOException {
+        return new TemplateStore(Paths.get(storePath));
+    }
+
+    // ========== Lookup ==========
+
+    public synchronized Entry get(String templatePath) {
+        return index.get(normalize(templatePath));
+    }
+
+    /**
+     * Entry whose source file is unchanged since it was stored (or whose source file no longer exists)
+     */
+    public Entry getFresh(String templatePath) {
+        Entry entry = get(templatePath);
+        if (entry == null) {
+            return null;
+        }
+        long modified = new File(templatePath).lastModified();  // 0 if the file is gone
+        return modified == 0 || modified == entry.sourceModified ? entry : null;
+    }
+
+    public synchronized Collection<Entry> entries() {
+        return Collections.unmodifiableList(new ArrayList<>(index.values()));
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Preprocessed (grayscale + blurred) template pixels as a CV_8UC1 Mat, or null if not stored
+     */
+    public Mat loadPreprocessed(String templatePath) {
+        Entry entry = get(templatePath);
+        if (entry == null) {
+            return null;
+        }
+        byte[] pixels = new byte[entry.width * entry.height];
+        read(entry.pixelOffset, pixels);
+
+        Mat mat = new Mat(entry.height, entry.width, CvType.CV_8UC1);
+        mat.put(0, 0, pixels);
+        return mat;
+    }
+
+    /**
+     * Stored metadata snapshot, or null if not stored
+     */
+    public TemplateMetadata loadMetadata(String templatePath) {
+        Entry entry = get(templatePath);
+        if (entry == null || entry.metadataLength == 0) {
+            return null;
+        }
+        byte[] json = new byte[entry.metadataLength];
+        read(entry.metadataOffset, json);
+        try {
+            return objectMapper.readValue(json, TemplateMetadata.class);
+        } catch (IOException e) {
+            log.debug("Could not parse stored metadata for {}: {}", templatePath, e.getMessage());
+            return null;
+        }
+    }
+
+    // ========== Updates (append-only) ==========
+
+    /**
+     * Append the current state of a template file (image + sidecar) to the store
+     * @return true if the template was stored
+     */
+    public boolean put(String templatePath) {
+        Mat original = Imgcodecs.imread(templatePath);
+        if (original.empty()) {
+            log.debug("Cannot store unreadable template: {}", templatePath);
+            return false;
+        }
+
+        try {
+            Mat preprocessed = AIElementFinder.preprocessImage(original);
+            byte[] pixels = new byte[(int) preprocessed.total()];
+            preprocessed.get(0, 0, pixels);
+
+            BufferedImage image = ImageIO.read(new File(templatePath));
+            VisualFingerprint fingerprint = image != null ? VisualFingerprint.of(image) : new VisualFingerprint(0, 0, 0);
+
+            Path sidecar = Paths.get(templatePath.replaceAll("\\.[^.]+$", ".json"));
+            byte[] metadata = Files.exists(sidecar) ? Files.readAllBytes(sidecar) : new byte[0];
+
+            ByteBuffer record = encodeTemplate(normalize(templatePath), new File(templatePath).lastModified(),
+                                               fingerprint, preprocessed.cols(), preprocessed.rows(), metadata, pixels);
+            preprocessed.release();
+            append(record);
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed to store template {}: {}", templatePath, e.getMessage());
+            return false;
+        } finally {
+            original.release();
+        }
+    }
+
+    /**
+     * Mark a template as removed
+     */
+    public void remove(String templatePath) {
+        if (get(templatePath) == null) {
+            return;
+        }
+        byte[] path = normalize(templatePath).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(4 + 1 + 2 + path.length);
+        record.putInt(1 + 2 + path.length).put(TYPE_REMOVED).putShort((short) path.length).put(path);
+        record.flip();
+        try {
+            append(record);
+        } catch (IOException e) {
+            log.warn("Failed to remove template {} from store: {}", templatePath, e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrite the store with only live templates and a fresh index (drops replaced and removed records)
+     */
+    public synchronized void compact() throws IOException {
+        Path temp = storePath.resolveSibling(storePath.getFileName() + ".tmp");
+        List<Entry> live = new ArrayList<>(index.values());
+
+        try (FileChannel out = FileChannel.open(temp, java.nio.file.StandardOpenOption.CREATE,
+                java.nio.file.StandardOpenOption.TRUNCATE_EXISTING, java.nio.file.StandardOpenOption.WRITE)) {
+            out.position(HEADER_SIZE);
+            Map<String, Long> offsets = new LinkedHashMap<>();
+
+            for (Entry entry : live) {
+                byte[] metadata = new byte[entry.metadataLength];
+                read(entry.metadataOffset, metadata);
+                byte[] pixels = new byte[entry.width * entry.height];
+                read(entry.pixelOffset, pixels);
+
+                offsets.put(entry.templatePath, out.position());
+                writeFully(out, encodeTemplate(entry.templatePath, entry.sourceModified, entry.fingerprint,
+                                               entry.width, entry.height, metadata, pixels));
+            }
+
+            long indexOffset = out.position();
+            int indexSize = 4;
+            for (String path : offsets.keySet()) {
+                indexSize += 2 + path.getBytes(StandardCharsets.UTF_8).length + 8;
+            }
+            ByteBuffer indexBuffer = ByteBuffer.allocate(indexSize);
+            indexBuffer.putInt(offsets.size());
+            for (Map.Entry<String, Long> offset : offsets.entrySet()) {
+                byte[] path = offset.getKey().getBytes(StandardCharsets.UTF_8);
+                indexBuffer.putShort((short) path.length).put(path).putLong(offset.getValue());
+            }
+            indexBuffer.flip();
+            writeFully(out, indexBuffer);
+
+            writeFully(out, header(indexOffset, out.position()), 0);
+            out.force(true);
+        }
+
+        closeChannel();
+        try {
+            Files.move(temp, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Windows refuses to replace a file while a mapping is still alive; mappings are released on GC
+            System.gc();
+            Files.move(temp, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        open();
+        log.info("Compacted template store: {} templates, {} KB", index.size(), Files.size(storePath) / 1024);
+    }
+
+    /**
+     * Import every template image under the folder, then compact
+     * @return Number of templates stored
+     */
+    public int importFolder(String templatesFolder) throws IOException {
+        List<Path> images;
+        try (Stream<Path> paths = Files.walk(Paths.get(templatesFolder))) {
+            images = paths
+                    .filter(Files::isRegularFile)
+                    .filter(path -> path.toString().toLowerCase().matches(".*\\.(png|jpg|jpeg)$"))
+                    .collect(Collectors.toList());
+        }
+
+        int stored = 0;
+        for (Path image : images) {
+            Entry existing = getFresh(image.toString());
+            if (existing != null || put(image.toString())) {
+                stored++;
+            }
+        }
+        compact();
+        log.info("Imported {} templates from {} into {}", stored, templatesFolder, storePath);
+        return stored;
+    }
+
+    public synchronized void close() {
+        closeChannel();
+    }
+
+    // ========== File handling ==========
+
+    private synchronized void open() throws IOException {
+        Files.createDirectories(storePath.toAbsolutePath().getParent());
+        channel = FileChannel.open(storePath, java.nio.file.StandardOpenOption.CREATE,
+                java.nio.file.StandardOpenOption.READ, java.nio.file.StandardOpenOption.WRITE);
+        index.clear();
+
+        if (channel.size() < HEADER_SIZE) {
+            channel.truncate(0);
+            writeFully(channel, header(0, HEADER_SIZE), 0);
+            logEnd = HEADER_SIZE;
+            remap();
+            return;
+        }
+
+        remap();
+        if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Not a template store (or unsupported version): " + storePath);
+        }
+        long indexOffset = mapped.getLong(8);
+        long logStart = mapped.getLong(16);
+
+        // Compacted section: read the index table only, records stay untouched until requested
+        if (indexOffset > 0) {
+            int position = (int) indexOffset;
+            int count = mapped.getInt(position);
+            position += 4;
+            for (int i = 0; i < count; i++) {
+                int pathLength = mapped.getShort(position);
+                position += 2;
+                position += pathLength;
+                long recordOffset = mapped.getLong(position);
+                position += 8;
+                readRecord(recordOffset);
+            }
+        }
+
+        // Append log: scan record headers written since the last compaction
+        long position = logStart;
+        long fileSize = channel.size();
+        while (position + 4 <= fileSize) {
+            int length = mapped.getInt((int) position);
+            if (length <= 0 || position + 4 + length > fileSize) {
+                log.warn("Template store has a truncated record at {}, discarding the tail", position);
+                try {
+                    channel.truncate(position);
+                } catch (IOException e) {
+                    // Mapped files cannot be truncated on Windows; the next compaction drops the tail
+                    log.debug("Could not truncate template store: {}", e.getMessage());
+                }
+                break;
+            }
+            readRecord(position);
+            position += 4 + length;
+        }
+        logEnd = position;
+        remap();
+        log.info("Opened template store {} ({} templates)", storePath, index.size());
+    }
+
+    private void readRecord(long offset) {
+        int position = (int) offset + 4;
+        byte type = mapped.get(position++);
+        int pathLength = mapped.getShort(position);
+        position += 2;
+        byte[] pathBytes = new byte[pathLength];
+        for (int i = 0; i < pathLength; i++) {
+            pathBytes[i] = mapped.get(position + i);
+        }
+        position += pathLength;
+        String path = new String(pathBytes, StandardCharsets.UTF_8);
+
+        if (type == TYPE_REMOVED) {
+            index.remove(path);
+            return;
+        }
+
+        long sourceModified = mapped.getLong(position);
+        VisualFingerprint fingerprint = new VisualFingerprint(
+                mapped.getLong(position + 8), mapped.getLong(position + 16), mapped.getLong(position + 24));
+        int width = mapped.getInt(position + 32);
+        int height = mapped.getInt(position + 36);
+        int metadataLength = mapped.getInt(position + 40);
+        long metadataOffset = position + 44;
+        long pixelOffset = metadataOffset + metadataLength;
+
+        index.put(path, new Entry(path, sourceModified, fingerprint, width, height,
+                                  metadataOffset, metadataLength, pixelOffset));
+    }
+
+    private synchronized void append(ByteBuffer record) throws IOException {
+        long offset = logEnd;
+        writeFully(channel, record, offset);
+        logEnd = offset + record.limit();
+        remap();
+        readRecord(offset);
+    }
+
+    private synchronized void read(long offset, byte[] target) {
+        ByteBuffer view = mapped.duplicate();
+        view.position((int) offset);
+        view.get(target);
+    }
+
+    private void remap() throws IOException {
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    private void closeChannel() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.debug("Error closing template store: {}", e.getMessage());
+        }
+        channel = null;
+        mapped = null;
+    }
+
+    private static ByteBuffer encodeTemplate(String path, long sourceModified, VisualFingerprint fingerprint,
+                                             int width, int height, byte[] metadata, byte[] pixels) {
+        byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+        int length = 1 + 2 + pathBytes.length + 8 + 24 + 4 + 4 + 4 + metadata.length + pixels.length;
+
+        ByteBuffer record = ByteBuffer.allocate(4 + length);
+        record.putInt(length).put(TYPE_TEMPLATE).putShort((short) pathBytes.length).put(pathBytes);
+        record.putLong(sourceModified);
+        record.putLong(fingerprint.averageHash).putLong(fingerprint.differenceHash).putLong(fingerprint.perceptualHash);
+        record.putInt(width).putInt(height);
+        record.putInt(metadata.length).put(metadata);
+        record.put(pixels);
+        record.flip();
+        return record;
+    }
+
+    private static ByteBuffer header(long indexOffset, long logStart) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(indexOffset).putLong(logStart);
+        header.flip();
+        return header;
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += target.write(buffer, position);
+        }
+    }
+
+    private static String normalize(String templatePath) {
+        return templatePath.replace('\\', '/');
+    }
+
+    /**
+     * CLI entry point: build [templatesFolder] | compact
+     */
+    public static void main(String[] args) throws IOException {
+        nu.pattern.OpenCV.loadShared();
+        String command = args.length > 0 ? args[0] : "build";
+        TemplateStore store = open(TemplateConfig.getTemplateStorePath());
+        try {
+            if ("compact".equals(command)) {
+                store.compact();
+            } else {
+                store.importFolder(args.length > 1 ? args[1] : "templates");
+            }
+        } finally {
+            store.close();
+        }
+    }
+}
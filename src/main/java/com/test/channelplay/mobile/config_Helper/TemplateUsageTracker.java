@@ -6,7 +6,8 @@ import org.slf4j.LoggerFactory;
 /**
  * Utility to track template usage and update enhanced metadata
  *
- * Integrates with existing AI system to record performance metrics
+ * Integrates with existing AI system to record performance metrics.
+ * Metadata comes from TemplateMetadataRegistry, so updates are batched to disk (write-behind).
  */
 public class TemplateUsageTracker {
 
@@ -32,7 +33,7 @@ public class TemplateUsageTracker {
         if (!enabled || templatePath == null) return;
 
         try {
-            TemplateMetadata metadata = TemplateMetadata.loadOrCreate(templatePath);
+            TemplateMetadata metadata = TemplateMetadataRegistry.get(templatePath);
             metadata.recordSuccess("opencv", confidence, matchTime);
             log.debug("Recorded OpenCV success for {} (confidence: {}, time: {}ms)",
                 templatePath, confidence, matchTime);
@@ -51,7 +52,7 @@ public class TemplateUsageTracker {
         if (!enabled || templatePath == null) return;
 
         try {
-            TemplateMetadata metadata = TemplateMetadata.loadOrCreate(templatePath);
+            TemplateMetadata metadata = TemplateMetadataRegistry.get(templatePath);
             metadata.recordFailure("opencv", matchTime);
             log.debug("Recorded OpenCV failure for {} (time: {}ms)", templatePath, matchTime);
         } catch (Exception e) {
@@ -72,7 +73,7 @@ public class TemplateUsageTracker {
             // Find template by name (if it exists)
             String templatePath = findTemplatePathByName(fieldName);
             if (templatePath != null) {
-                TemplateMetadata metadata = TemplateMetadata.loadOrCreate(templatePath);
+                TemplateMetadata metadata = TemplateMetadataRegistry.get(templatePath);
                 metadata.recordSuccess("xpath", 1.0, matchTime);
                 log.debug("Recorded XPath success for {} (time: {}ms)", fieldName, matchTime);
             }
@@ -94,7 +95,7 @@ public class TemplateUsageTracker {
         try {
             String templatePath = findTemplatePathByName(fieldName);
             if (templatePath != null) {
-                TemplateMetadata metadata = TemplateMetadata.loadOrCreate(templatePath);
+                TemplateMetadata metadata = TemplateMetadataRegistry.get(templatePath);
                 if (success) {
                     metadata.recordSuccess("ocr", 0.8, matchTime);
                 } else {
@@ -120,15 +121,17 @@ public class TemplateUsageTracker {
         if (!enabled || templatePath == null) return;
 
         try {
-            TemplateMetadata metadata = TemplateMetadata.loadOrCreate(templatePath);
-            metadata.context.screenName = screenName;
-            metadata.context.fieldType = fieldType;
+            TemplateMetadata metadata = TemplateMetadataRegistry.get(templatePath);
+            synchronized (metadata) {
+                metadata.context.screenName = screenName;
+                metadata.context.fieldType = fieldType;
 
-            for (String tag : tags) {
-                metadata.addTag(tag);
-            }
+                for (String tag : tags) {
+                    metadata.addTag(tag);
+                }
 
-            metadata.save();
+                metadata.persist();
+            }
             log.debug("Added context to template: {}", templatePath);
         } catch (Exception e) {
             log.warn("Failed to add context: {}", e.getMessage());
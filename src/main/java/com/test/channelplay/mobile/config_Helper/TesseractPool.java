@@ -0,0 +1,294 @@
+package com.test.channelplay.mobile.config_Helper;
+
+import com.sun.jna.Pointer;
+import net.sourceforge.tess4j.ITessAPI;
+import net.sourceforge.tess4j.ITessAPI.TessBaseAPI;
+import net.sourceforge.tess4j.ITessAPI.TessOcrEngineMode;
+import net.sourceforge.tess4j.ITessAPI.TessPageIterator;
+import net.sourceforge.tess4j.ITessAPI.TessResultIterator;
+import net.sourceforge.tess4j.TessAPI1;
+import net.sourceforge.tess4j.TesseractException;
+import net.sourceforge.tess4j.Word;
+import net.sourceforge.tess4j.util.ImageIOHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide bounded pool of initialised Tesseract engines
+ *
+ * tess4j's Tesseract class initialises the engine (loading the traineddata) and ends it on every
+ * doOCR/getWords call. The pooled engines instead wrap a TessBaseAPI handle that is initialised once
+ * and only cleared between calls, so language data is loaded once per engine for the whole run.
+ * Engines are not safe to share between threads, so each OCR call borrows an engine, uses it on
+ * the calling thread only and returns it. Every AIElementFinder shares the pool, so parallel device
+ * sessions can OCR concurrently. The native engines are ended by shutdown(), which runs from a JVM
+ * shutdown hook once the run is over.
+ *
+ * Usage:
+ *   List<Word> words = TesseractPool.withEngine(engine -> engine.getWords(image, 1));
+ */
+public class TesseractPool {
+
+    private static final Logger log = LoggerFactory.getLogger(TesseractPool.class);
+
+    private static volatile BlockingQueue<Engine> engines;
+    private static int poolSize;
+    private static long createdAtNanos;
+    private static boolean shutdownHookRegistered;
+
+    private static final AtomicLong borrows = new AtomicLong();
+    private static final AtomicLong timeouts = new AtomicLong();
+    private static final AtomicLong totalWaitNanos = new AtomicLong();
+    private static final AtomicLong maxWaitNanos = new AtomicLong();
+    private static final AtomicLong totalBusyNanos = new AtomicLong();
+    private static final AtomicInteger inUse = new AtomicInteger();
+    private static final AtomicInteger peakInUse = new AtomicInteger();
+
+    /**
+     * Work done with a borrowed engine
+     */
+    @FunctionalInterface
+    public interface OCRTask<T> {
+        T run(Engine engine) throws Exception;
+    }
+
+    /**
+     * Borrow an engine, run the task on it and return the engine to the pool
+     * @param task OCR work (must not keep a reference to the engine)
+     * @return Task result
+     * @throws TimeoutException if no engine became free within the configured borrow timeout
+     */
+    public static <T> T withEngine(OCRTask<T> task) throws Exception {
+        BlockingQueue<Engine> pool = getPool();
+
+        long waitStart = System.nanoTime();
+        Engine engine = pool.poll(TemplateConfig.getOCRPoolBorrowTimeoutSeconds(), TimeUnit.SECONDS);
+        long waited = System.nanoTime() - waitStart;
+
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        if (engine == null) {
+            timeouts.incrementAndGet();
+            throw new TimeoutException("No Tesseract engine available after " + TimeUnit.NANOSECONDS.toMillis(waited) + "ms");
+        }
+
+        borrows.incrementAndGet();
+        peakInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+        long busyStart = System.nanoTime();
+        try {
+            return task.run(engine);
+        } finally {
+            totalBusyNanos.addAndGet(System.nanoTime() - busyStart);
+            inUse.decrementAndGet();
+            pool.offer(engine);
+        }
+    }
+
+    private static BlockingQueue<Engine> getPool() {
+        BlockingQueue<Engine> pool = engines;
+        if (pool == null) {
+            synchronized (TesseractPool.class) {
+                pool = engines;
+                if (pool == null) {
+                    pool = createPool();
+                    engines = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    private static BlockingQueue<Engine> createPool() {
+        poolSize = TemplateConfig.getOCRPoolSize();
+        String datapath = TemplateConfig.getOCRTessdataPath();
+        String language = TemplateConfig.getOCRLanguage();
+
+        BlockingQueue<Engine> pool = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            pool.offer(new Engine(datapath, language));
+        }
+
+        createdAtNanos = System.nanoTime();
+        if (!shutdownHookRegistered) {
+            Runtime.getRuntime().addShutdownHook(new Thread(TesseractPool::shutdown, "tesseract-pool-shutdown"));
+            shutdownHookRegistered = true;
+        }
+        log.info("Tesseract pool initialised: {} engines, tessdata '{}', language '{}'", poolSize,
+                 datapath != null ? datapath : "Tesseract default", language);
+        return pool;
+    }
+
+    /**
+     * End every idle engine and drop the pool (the next OCR call creates a new one)
+     * Call only when no OCR is running: an engine borrowed at this point is not ended.
+     */
+    public static synchronized void shutdown() {
+        BlockingQueue<Engine> pool = engines;
+        if (pool == null) {
+            return;
+        }
+        engines = null;
+        List<Engine> idle = new ArrayList<>();
+        pool.drainTo(idle);
+        for (Engine engine : idle) {
+            engine.end();
+        }
+        log.info("Tesseract pool shut down: {} of {} engines ended", idle.size(), poolSize);
+    }
+
+    /**
+     * One Tesseract engine, initialised once with the configured language data
+     * (page segmentation and variables left at Tesseract's defaults, image passed the way tess4j's Tesseract does)
+     */
+    public static class Engine {
+        private final TessBaseAPI handle;
+        private final boolean initialised;
+
+        Engine(String datapath, String language) {
+            handle = TessAPI1.TessBaseAPICreate();
+            initialised = TessAPI1.TessBaseAPIInit2(handle, datapath, language, TessOcrEngineMode.OEM_DEFAULT) == 0;
+            if (!initialised) {
+                log.warn("Tesseract not configured properly (tessdata '{}', language '{}'). OCR features will not work", datapath, language);
+            }
+        }
+
+        /**
+         * Recognise the whole image as text
+         */
+        public String doOCR(BufferedImage image) throws TesseractException {
+            setImage(image);
+            try {
+                Pointer text = TessAPI1.TessBaseAPIGetUTF8Text(handle);
+                if (text == null) {
+                    return "";
+                }
+                try {
+                    return text.getString(0, "UTF-8");
+                } finally {
+                    TessAPI1.TessDeleteText(text);
+                }
+            } finally {
+                TessAPI1.TessBaseAPIClear(handle);
+            }
+        }
+
+        /**
+         * Recognised text items with confidence and bounding box
+         * @param pageIteratorLevel Iterator level (TessPageIteratorLevel, e.g. 3 for words)
+         */
+        public List<Word> getWords(BufferedImage image, int pageIteratorLevel) throws TesseractException {
+            setImage(image);
+            List<Word> words = new ArrayList<>();
+            TessResultIterator iterator = null;
+            try {
+                TessAPI1.TessBaseAPIRecognize(handle, null);
+                iterator = TessAPI1.TessBaseAPIGetIterator(handle);
+                if (iterator == null) {
+                    return words;
+                }
+                TessPageIterator pageIterator = TessAPI1.TessResultIteratorGetPageIterator(iterator);
+                TessAPI1.TessPageIteratorBegin(pageIterator);
+                IntBuffer left = IntBuffer.allocate(1);
+                IntBuffer top = IntBuffer.allocate(1);
+                IntBuffer right = IntBuffer.allocate(1);
+                IntBuffer bottom = IntBuffer.allocate(1);
+                do {
+                    Pointer text = TessAPI1.TessResultIteratorGetUTF8Text(iterator, pageIteratorLevel);
+                    if (text == null) {
+                        continue;
+                    }
+                    String value = text.getString(0, "UTF-8");
+                    TessAPI1.TessDeleteText(text);
+                    float confidence = TessAPI1.TessResultIteratorConfidence(iterator, pageIteratorLevel);
+                    TessAPI1.TessPageIteratorBoundingBox(pageIterator, pageIteratorLevel, left, top, right, bottom);
+                    words.add(new Word(value, confidence,
+                            new Rectangle(left.get(0), top.get(0), right.get(0) - left.get(0), bottom.get(0) - top.get(0))));
+                } while (TessAPI1.TessPageIteratorNext(pageIterator, pageIteratorLevel) == ITessAPI.TRUE);
+                return words;
+            } finally {
+                if (iterator != null) {
+                    TessAPI1.TessResultIteratorDelete(iterator);
+                }
+                TessAPI1.TessBaseAPIClear(handle);
+            }
+        }
+
+        /**
+         * Release the native engine, after which it must not be used
+         */
+        void end() {
+            TessAPI1.TessBaseAPIEnd(handle);
+            TessAPI1.TessBaseAPIDelete(handle);
+        }
+
+        private void setImage(BufferedImage image) throws TesseractException {
+            if (!initialised) {
+                throw new TesseractException("Tesseract engine not initialised");
+            }
+            // getImageByteBuffer converts images without a byte raster (e.g. TYPE_INT_RGB) to 8-bit grey
+            int bpp = image.getRaster().getDataBuffer() instanceof DataBufferByte ? image.getColorModel().getPixelSize() : 8;
+            int bytesPerLine = (int) Math.ceil(image.getWidth() * bpp / 8.0);
+            TessAPI1.TessBaseAPISetImage(handle, ImageIOHelper.getImageByteBuffer(image),
+                    image.getWidth(), image.getHeight(), bpp / 8, bytesPerLine);
+        }
+    }
+
+    public static long getBorrowCount() {
+        return borrows.get();
+    }
+
+    public static long getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    /**
+     * Average time callers waited for a free engine (ms)
+     */
+    public static double getAverageWaitMillis() {
+        long count = borrows.get() + timeouts.get();
+        return count > 0 ? totalWaitNanos.get() / 1_000_000.0 / count : 0.0;
+    }
+
+    public static double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Fraction of pool capacity spent running OCR since the pool was created (0.0 to 1.0)
+     */
+    public static double getUtilisation() {
+        if (engines == null || poolSize == 0) {
+            return 0.0;
+        }
+        long elapsed = System.nanoTime() - createdAtNanos;
+        return elapsed > 0 ? Math.min(1.0, (double) totalBusyNanos.get() / ((double) elapsed * poolSize)) : 0.0;
+    }
+
+    /**
+     * Log pool statistics
+     */
+    public static void logStats() {
+        if (engines == null) {
+            log.info("Tesseract pool: not initialised (no OCR calls yet)");
+            return;
+        }
+        log.info("Tesseract pool: {} engines, {} in use (peak {}), {} borrows, {} timeouts, "
+                 + "wait avg {}ms / max {}ms, utilisation {}%",
+                 poolSize, inUse.get(), peakInUse.get(), borrows.get(), timeouts.get(),
+                 String.format("%.1f", getAverageWaitMillis()), String.format("%.1f", getMaxWaitMillis()),
+                 String.format("%.1f", getUtilisation() * 100));
+    }
+}
@@ -0,0 +1,186 @@
+package com.test.channelplay.mobile.config_Helper;
+
+import io.appium.java_client.AppiumDriver;
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Waits for the app UI to stop changing instead of sleeping a fixed time after an action
+ *
+ * The UI is sampled every template.ui.settle.poll.ms and counts as settled once it has stayed
+ * unchanged for template.ui.settle.quiet.ms. Every wait has a ceiling, so the worst case equals
+ * the fixed sleep it replaces. Signals (template.ui.settle.signal):
+ *   pagesource - hash of the UI hierarchy (one read-only command per sample); the settled sample
+ *                stays in PageSourceSnapshot, so an XPath lookup right after reuses it
+ *   frame      - mean difference of screenshots decoded at 1/8 scale in greyscale; the settled
+ *                frame stays in ScreenshotProvider, so a visual lookup right after reuses it
+ *
+ * Usage:
+ *   element.click();
+ *   UiSettleDetector.waitForSettle(driver, 1000);
+ */
+public class UiSettleDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(UiSettleDetector.class);
+
+    private static final AtomicLong waits = new AtomicLong();
+    private static final AtomicLong settled = new AtomicLong();
+    private static final AtomicLong totalWaitMs = new AtomicLong();
+    private static final AtomicLong totalCeilingMs = new AtomicLong();
+
+    /**
+     * Wait for the UI to settle using the configured default ceiling
+     * @return true if the UI settled, false if the ceiling was reached
+     */
+    public static boolean waitForSettle(AppiumDriver driver) {
+        return waitForSettle(driver, TemplateConfig.getUiSettleTimeoutMs());
+    }
+
+    /**
+     * Wait for the UI to settle
+     * @param driver Driver of the app under test (null = plain sleep)
+     * @param maxWaitMs Ceiling for this wait (ms)
+     * @return true if the UI settled, false if the ceiling was reached
+     */
+    public static boolean waitForSettle(AppiumDriver driver, long maxWaitMs) {
+        if (driver == null || !TemplateConfig.isUiSettleEnabled()) {
+            sleep(maxWaitMs);
+            return false;
+        }
+
+        long start = System.currentTimeMillis();
+        boolean result;
+        if ("frame".equals(TemplateConfig.getUiSettleSignal())) {
+            result = waitForStableFrame(driver, start + maxWaitMs);
+        } else {
+            result = waitForStablePageSource(driver, start + maxWaitMs);
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        waits.incrementAndGet();
+        totalWaitMs.addAndGet(elapsed);
+        totalCeilingMs.addAndGet(maxWaitMs);
+        if (result) {
+            settled.incrementAndGet();
+            log.debug("UI settled after {}ms (ceiling {}ms)", elapsed, maxWaitMs);
+        } else {
+            log.debug("UI still changing after {}ms ceiling", maxWaitMs);
+        }
+        return result;
+    }
+
+    private static boolean waitForStablePageSource(AppiumDriver driver, long deadline) {
+        long quietMs = TemplateConfig.getUiSettleQuietMs();
+        long pollMs = TemplateConfig.getUiSettlePollMs();
+
+        try {
+            // Samples go through PageSourceSnapshot, so the settled sample is the snapshot the next lookup reuses
+            int last = PageSourceSnapshot.current(driver).getSource().hashCode();
+            long stableSince = System.currentTimeMillis();
+            while (true) {
+                long now = System.currentTimeMillis();
+                if (now >= deadline) {
+                    return false;
+                }
+                sleep(Math.min(pollMs, deadline - now));
+
+                int current = PageSourceSnapshot.refresh(driver).getSource().hashCode();
+                now = System.currentTimeMillis();
+                if (current != last) {
+                    last = current;
+                    stableSince = now;
+                } else if (now - stableSince >= quietMs) {
+                    return true;
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Page source not available for settle detection: {}", e.getMessage());
+            sleep(deadline - System.currentTimeMillis());
+            return false;
+        }
+    }
+
+    private static boolean waitForStableFrame(AppiumDriver driver, long deadline) {
+        long quietMs = TemplateConfig.getUiSettleQuietMs();
+        long pollMs = TemplateConfig.getUiSettlePollMs();
+        double threshold = TemplateConfig.getUiSettleFrameDiffThreshold();
+        ScreenshotProvider provider = ScreenshotProvider.forDriver(driver);
+
+        try (MatArena arena = MatArena.open("UiSettleDetector")) {
+            Mat last = arena.track(captureReduced(provider));
+            Mat diff = arena.newMat();
+            long stableSince = System.currentTimeMillis();
+            while (true) {
+                long now = System.currentTimeMillis();
+                if (now >= deadline) {
+                    return false;
+                }
+                sleep(Math.min(pollMs, deadline - now));
+
+                Mat current = arena.track(captureReduced(provider));
+                now = System.currentTimeMillis();
+                boolean unchanged = false;
+                if (!current.empty() && current.size().equals(last.size())) {
+                    Core.absdiff(current, last, diff);
+                    unchanged = Core.mean(diff).val[0] <= threshold;
+                }
+
+                if (!unchanged) {
+                    arena.detach(last).release();
+                    last = current;
+                    stableSince = now;
+                } else {
+                    arena.detach(current).release();
+                    if (now - stableSince >= quietMs) {
+                        return true;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Screenshot not available for settle detection: {}", e.getMessage());
+            sleep(deadline - System.currentTimeMillis());
+            return false;
+        }
+    }
+
+    /**
+     * Capture a new frame and decode it at 1/8 scale in greyscale (decoding does the downscale)
+     */
+    private static Mat captureReduced(ScreenshotProvider provider) {
+        provider.invalidate();  // Sampling needs a new frame, not the cached one
+        byte[] png = provider.getScreenshotBytes();
+        MatOfByte buffer = new MatOfByte(png);
+        try {
+            return Imgcodecs.imdecode(buffer, Imgcodecs.IMREAD_REDUCED_GRAYSCALE_8);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static void sleep(long ms) {
+        if (ms <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Log settle statistics (time spent vs. the fixed sleeps the waits replaced)
+     */
+    public static void logStats() {
+        long waitCount = waits.get();
+        long waited = totalWaitMs.get();
+        log.info("UI settle: {} waits, {} settled before ceiling, {}ms waited of {}ms ceiling (saved {}ms)",
+                 waitCount, settled.get(), waited, totalCeilingMs.get(), totalCeilingMs.get() - waited);
+    }
+}
@@ -0,0 +1,232 @@
+package com.test.channelplay.mobile.config_Helper;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Visual fingerprint of a template image: average, difference and DCT-based perceptual hashes
+ *
+ * All three 64-bit hashes are computed from a single 32x32 grayscale downscale:
+ * - aHash: 8x8 block means compared to the overall mean (cheap, sensitive to brightness shifts)
+ * - dHash: horizontal gradient sign of a 9x8 grid (robust to brightness/contrast changes)
+ * - pHash: sign of the low-frequency 8x8 DCT coefficients against their median (robust to scaling/blur)
+ *
+ * Distances are fused with the weights from TemplateConfig into a single score in bits (0 to 64).
+ */
+public class VisualFingerprint {
+
+    private static final int SAMPLE_SIZE = 32;
+    private static final int HASH_SIZE = 8;
+
+    // DCT-II basis for the 8 lowest frequencies over 32 samples: COS[u][x]
+    private static final double[][] COS = new double[HASH_SIZE][SAMPLE_SIZE];
+
+    static {
+        for (int u = 0; u < HASH_SIZE; u++) {
+            for (int x = 0; x < SAMPLE_SIZE; x++) {
+                COS[u][x] = Math.cos((2 * x + 1) * u * Math.PI / (2.0 * SAMPLE_SIZE));
+            }
+        }
+    }
+
+    public final long averageHash;
+    public final long differenceHash;
+    public final long perceptualHash;
+
+    public VisualFingerprint(long averageHash, long differenceHash, long perceptualHash) {
+        this.averageHash = averageHash;
+        this.differenceHash = differenceHash;
+        this.perceptualHash = perceptualHash;
+    }
+
+    /**
+     * Compute all three hashes from one downscale of the image
+     */
+    public static VisualFingerprint of(BufferedImage image) {
+        double[][] gray = downscaleGray(image);
+        return new VisualFingerprint(averageHash(gray), differenceHash(gray), perceptualHash(gray));
+    }
+
+    /**
+     * Parse the "aHash:dHash:pHash" hex form produced by toString()
+     * @return Fingerprint, or null if the text is not in that form
+     */
+    public static VisualFingerprint parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        String[] parts = text.split(":");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new VisualFingerprint(Long.parseUnsignedLong(parts[0], 16),
+                                         Long.parseUnsignedLong(parts[1], 16),
+                                         Long.parseUnsignedLong(parts[2], 16));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Weighted mean Hamming distance over the three hashes, using the TemplateConfig weights (bits, 0 to 64)
+     */
+    public double distance(VisualFingerprint other) {
+        return distance(other, TemplateConfig.getVisualHashAverageWeight(),
+                        TemplateConfig.getVisualHashDifferenceWeight(), TemplateConfig.getVisualHashPerceptualWeight());
+    }
+
+    /**
+     * Weighted mean Hamming distance over the three hashes (bits, 0 to 64)
+     * Pass the weights explicitly when comparing against many fingerprints, to read the config once.
+     */
+    public double distance(VisualFingerprint other, double weightA, double weightD, double weightP) {
+        double totalWeight = weightA + weightD + weightP;
+        if (totalWeight <= 0) {
+            return Long.bitCount(averageHash ^ other.averageHash);
+        }
+
+        return (weightA * Long.bitCount(averageHash ^ other.averageHash)
+                + weightD * Long.bitCount(differenceHash ^ other.differenceHash)
+                + weightP * Long.bitCount(perceptualHash ^ other.perceptualHash)) / totalWeight;
+    }
+
+    /**
+     * Average hash as a 64-char binary string (format stored in TemplateMetadata.hash)
+     */
+    public String toBinaryString() {
+        StringBuilder binary = new StringBuilder(64);
+        for (int bit = 63; bit >= 0; bit--) {
+            binary.append((averageHash >>> bit) & 1L);
+        }
+        return binary.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x:%016x:%016x", averageHash, differenceHash, perceptualHash);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof VisualFingerprint)) return false;
+        VisualFingerprint that = (VisualFingerprint) o;
+        return averageHash == that.averageHash && differenceHash == that.differenceHash
+               && perceptualHash == that.perceptualHash;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(averageHash) * 31 * 31 + Long.hashCode(differenceHash) * 31 + Long.hashCode(perceptualHash);
+    }
+
+    private static double[][] downscaleGray(BufferedImage image) {
+        BufferedImage resized = new BufferedImage(SAMPLE_SIZE, SAMPLE_SIZE, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = resized.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, SAMPLE_SIZE, SAMPLE_SIZE, null);
+        g.dispose();
+
+        int[] rgb = resized.getRGB(0, 0, SAMPLE_SIZE, SAMPLE_SIZE, null, 0, SAMPLE_SIZE);
+        double[][] gray = new double[SAMPLE_SIZE][SAMPLE_SIZE];
+        for (int y = 0; y < SAMPLE_SIZE; y++) {
+            for (int x = 0; x < SAMPLE_SIZE; x++) {
+                int pixel = rgb[y * SAMPLE_SIZE + x];
+                gray[y][x] = (((pixel >> 16) & 0xFF) + ((pixel >> 8) & 0xFF) + (pixel & 0xFF)) / 3.0;
+            }
+        }
+        return gray;
+    }
+
+    private static long averageHash(double[][] gray) {
+        int block = SAMPLE_SIZE / HASH_SIZE;
+        double[] means = new double[HASH_SIZE * HASH_SIZE];
+        double total = 0;
+
+        for (int by = 0; by < HASH_SIZE; by++) {
+            for (int bx = 0; bx < HASH_SIZE; bx++) {
+                double sum = 0;
+                for (int y = by * block; y < (by + 1) * block; y++) {
+                    for (int x = bx * block; x < (bx + 1) * block; x++) {
+                        sum += gray[y][x];
+                    }
+                }
+                means[by * HASH_SIZE + bx] = sum / (block * block);
+                total += sum;
+            }
+        }
+
+        return bitsAbove(means, total / (SAMPLE_SIZE * SAMPLE_SIZE));
+    }
+
+    private static long differenceHash(double[][] gray) {
+        // 9 columns x 8 rows of area means, each row compared left to right
+        int columns = HASH_SIZE + 1;
+        double[][] grid = new double[HASH_SIZE][columns];
+        int rowBlock = SAMPLE_SIZE / HASH_SIZE;
+
+        for (int gy = 0; gy < HASH_SIZE; gy++) {
+            for (int gx = 0; gx < columns; gx++) {
+                int x0 = gx * SAMPLE_SIZE / columns;
+                int x1 = (gx + 1) * SAMPLE_SIZE / columns;
+                double sum = 0;
+                for (int y = gy * rowBlock; y < (gy + 1) * rowBlock; y++) {
+                    for (int x = x0; x < x1; x++) {
+                        sum += gray[y][x];
+                    }
+                }
+                grid[gy][gx] = sum / ((x1 - x0) * rowBlock);
+            }
+        }
+
+        long hash = 0L;
+        for (int gy = 0; gy < HASH_SIZE; gy++) {
+            for (int gx = 0; gx < HASH_SIZE; gx++) {
+                hash = (hash << 1) | (grid[gy][gx] > grid[gy][gx + 1] ? 1L : 0L);
+            }
+        }
+        return hash;
+    }
+
+    private static long perceptualHash(double[][] gray) {
+        // Separable 2D DCT-II, keeping only the 8x8 lowest frequencies
+        double[][] rows = new double[SAMPLE_SIZE][HASH_SIZE];
+        for (int y = 0; y < SAMPLE_SIZE; y++) {
+            for (int u = 0; u < HASH_SIZE; u++) {
+                double sum = 0;
+                for (int x = 0; x < SAMPLE_SIZE; x++) {
+                    sum += gray[y][x] * COS[u][x];
+                }
+                rows[y][u] = sum;
+            }
+        }
+
+        double[] coefficients = new double[HASH_SIZE * HASH_SIZE];
+        for (int v = 0; v < HASH_SIZE; v++) {
+            for (int u = 0; u < HASH_SIZE; u++) {
+                double sum = 0;
+                for (int y = 0; y < SAMPLE_SIZE; y++) {
+                    sum += rows[y][u] * COS[v][y];
+                }
+                coefficients[v * HASH_SIZE + u] = sum;
+            }
+        }
+
+        // Median of the AC coefficients (DC term only carries overall brightness)
+        double[] ac = java.util.Arrays.copyOfRange(coefficients, 1, coefficients.length);
+        java.util.Arrays.sort(ac);
+        double median = ac[ac.length / 2];
+
+        return bitsAbove(coefficients, median);
+    }
+
+    private static long bitsAbove(double[] values, double threshold) {
+        long hash = 0L;
+        for (double value : values) {
+            hash = (hash << 1) | (value > threshold ? 1L : 0L);
+        }
+        return hash;
+    }
+}
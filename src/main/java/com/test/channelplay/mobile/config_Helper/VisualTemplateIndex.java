@@ -9,7 +9,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.NoSuchAlgorithmException;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -22,8 +22,14 @@ public class VisualTemplateIndex {
     private final long maxFolderSizeMB;
     private final int maxVersionFolders;
 
-    private Map<String, TemplateEntry> hashToTemplate = new ConcurrentHashMap<>();
+    private Map<VisualFingerprint, TemplateEntry> hashToTemplate = new ConcurrentHashMap<>();
+    // One BK-tree per hash kind; a fused distance <= d implies at least one hash within d, so their union is complete
+    private HammingBKTree<TemplateEntry> averageHashTree = new HammingBKTree<>();
+    private HammingBKTree<TemplateEntry> differenceHashTree = new HammingBKTree<>();
+    private HammingBKTree<TemplateEntry> perceptualHashTree = new HammingBKTree<>();
     private Map<String, List<TemplateEntry>> elementNameToTemplates = new ConcurrentHashMap<>();
+    // Lowercased element name -> templates, so name filters compare each distinct name once
+    private Map<String, List<TemplateEntry>> normalizedNameToTemplates = new ConcurrentHashMap<>();
     private Map<String, FolderStats> folderStats = new ConcurrentHashMap<>();
     private ObjectMapper objectMapper = new ObjectMapper();
 
@@ -43,11 +49,11 @@ public class VisualTemplateIndex {
      */
     public void addTemplate(String templatePath, String elementName, BufferedImage image) {
         try {
-            String hash = generateImageHash(image);
-            TemplateEntry entry = new TemplateEntry(templatePath, hash, elementName, new Date());
+            VisualFingerprint fingerprint = VisualFingerprint.of(image);
+            TemplateEntry entry = new TemplateEntry(templatePath, fingerprint, elementName, new Date());
 
             // Add to hash index
-            hashToTemplate.put(hash, entry);
+            indexEntry(entry);
 
             // Add to element name index with version management
             manageElementVersions(elementName, entry);
@@ -59,7 +65,7 @@ public class VisualTemplateIndex {
             checkAndRotateFolders();
 
             saveIndex();
-            log.info("Added template to visual index: {} with hash: {}", templatePath, hash);
+            log.info("Added template to visual index: {} with fingerprint: {}", templatePath, entry.fingerprint);
 
         } catch (Exception e) {
             log.error("Failed to add template to visual index: {}", e.getMessage());
@@ -78,18 +84,15 @@ public class VisualTemplateIndex {
      */
     public String findTemplateByVisualMatch(BufferedImage currentImage, String elementName) {
         try {
-            String currentHash = generateImageHash(currentImage);
+            VisualFingerprint currentHash = VisualFingerprint.of(currentImage);
 
             // First try exact match with element name filtering
             if (elementName != null) {
-                for (Map.Entry<String, TemplateEntry> entry : hashToTemplate.entrySet()) {
-                    if (entry.getKey().equals(currentHash) &&
-                        entry.getValue().elementName != null &&
-                        entry.getValue().elementName.toLowerCase().contains(elementName.toLowerCase()) &&
-                        Files.exists(Paths.get(entry.getValue().path))) {
+                for (TemplateEntry candidate : findEntriesByNameFragment(elementName)) {
+                    if (currentHash.equals(candidate.fingerprint()) && Files.exists(Paths.get(candidate.path))) {
                         log.info("Found exact visual match for element '{}': {}",
-                                 elementName, entry.getValue().path);
-                        return entry.getValue().path;
+                                 elementName, candidate.path);
+                        return candidate.path;
                     }
                 }
             } else {
@@ -170,7 +173,11 @@ public class VisualTemplateIndex {
             for (TemplateEntry entry : toRemove) {
                 try {
                     Files.deleteIfExists(Paths.get(entry.path));
-                    hashToTemplate.remove(entry.hash);
+                    unindexEntry(entry);
+                    TemplateStore store = TemplateStore.shared();
+                    if (store != null) {
+                        store.remove(entry.path);
+                    }
                     log.info("Deleted old auto-captured version: {}", entry.path);
                 } catch (IOException e) {
                     log.warn("Failed to delete old version: {}", entry.path);
@@ -278,110 +285,137 @@ public class VisualTemplateIndex {
     }
 
     /**
-     * Generate perceptual hash for image
+     * Find similar template with fused hash distance
+     */
+    private String findSimilarTemplate(VisualFingerprint target) {
+        return findSimilarTemplate(target, null);
+    }
+
+    /**
+     * Find similar template with fused hash distance and element name filtering
      */
-    private String generateImageHash(BufferedImage image) throws NoSuchAlgorithmException {
-        // Resize image to 8x8 for perceptual hashing
-        BufferedImage resized = resizeImage(image, 8, 8);
-
-        // Convert to grayscale and generate hash
-        StringBuilder hashBuilder = new StringBuilder();
-        int[][] grayscale = new int[8][8];
-        int total = 0;
-
-        for (int y = 0; y < 8; y++) {
-            for (int x = 0; x < 8; x++) {
-                int rgb = resized.getRGB(x, y);
-                int gray = (((rgb >> 16) & 0xFF) + ((rgb >> 8) & 0xFF) + (rgb & 0xFF)) / 3;
-                grayscale[y][x] = gray;
-                total += gray;
+    private String findSimilarTemplate(VisualFingerprint target, String elementName) {
+        double maxDistance = TemplateConfig.getVisualHashMaxDistance();
+        double weightA = TemplateConfig.getVisualHashAverageWeight();
+        double weightD = TemplateConfig.getVisualHashDifferenceWeight();
+        double weightP = TemplateConfig.getVisualHashPerceptualWeight();
+
+        Collection<TemplateEntry> candidates;
+        if (elementName != null && !elementName.isEmpty()) {
+            // Name filter narrows the search to a few versions - compare those directly
+            candidates = findEntriesByNameFragment(elementName);
+        } else {
+            // Radius queries on the BK-trees instead of scanning every template
+            int radius = (int) Math.floor(maxDistance);
+            candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+            if (weightA > 0) {
+                averageHashTree.query(target.averageHash, radius).forEach(match -> candidates.add(match.value));
+            }
+            if (weightD > 0) {
+                differenceHashTree.query(target.differenceHash, radius).forEach(match -> candidates.add(match.value));
+            }
+            if (weightP > 0 || weightA + weightD <= 0) {
+                perceptualHashTree.query(target.perceptualHash, radius).forEach(match -> candidates.add(match.value));
             }
         }
 
-        int average = total / 64;
-
-        // Generate hash based on whether each pixel is above average
-        for (int y = 0; y < 8; y++) {
-            for (int x = 0; x < 8; x++) {
-                hashBuilder.append(grayscale[y][x] > average ? "1" : "0");
+        double minDistance = Double.MAX_VALUE;
+        TemplateEntry bestMatch = null;
+        for (TemplateEntry candidate : candidates) {
+            VisualFingerprint fingerprint = candidate.fingerprint();
+            if (fingerprint == null) {
+                continue;
+            }
+            double distance = target.distance(fingerprint, weightA, weightD, weightP);
+            if (distance < minDistance && distance <= maxDistance) {
+                minDistance = distance;
+                bestMatch = candidate;
             }
         }
 
-        // Convert binary string to hex
-        return binaryToHex(hashBuilder.toString());
-    }
-
-    private BufferedImage resizeImage(BufferedImage original, int width, int height) {
-        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        java.awt.Graphics2D g = resized.createGraphics();
-        g.drawImage(original, 0, 0, width, height, null);
-        g.dispose();
-        return resized;
-    }
-
-    private String binaryToHex(String binary) {
-        StringBuilder hex = new StringBuilder();
-        for (int i = 0; i < binary.length(); i += 4) {
-            String chunk = binary.substring(i, Math.min(i + 4, binary.length()));
-            hex.append(Integer.toHexString(Integer.parseInt(chunk, 2)));
+        if (bestMatch != null && Files.exists(Paths.get(bestMatch.path))) {
+            log.info("Found similar template with distance {} for element '{}': {}",
+                     String.format("%.2f", minDistance), elementName != null ? elementName : "any", bestMatch.path);
+            return bestMatch.path;
         }
-        return hex.toString();
+
+        return null;
     }
 
     /**
-     * Find similar template with hamming distance
+     * Templates whose element name contains the given fragment (case-insensitive)
      */
-    private String findSimilarTemplate(String targetHash) {
-        return findSimilarTemplate(targetHash, null);
+    private List<TemplateEntry> findEntriesByNameFragment(String elementName) {
+        String fragment = elementName.toLowerCase();
+        List<TemplateEntry> exact = normalizedNameToTemplates.get(fragment);
+        List<TemplateEntry> results = new ArrayList<>();
+
+        for (Map.Entry<String, List<TemplateEntry>> entry : normalizedNameToTemplates.entrySet()) {
+            if (entry.getValue() != exact && entry.getKey().contains(fragment)) {
+                results.addAll(entry.getValue());
+            }
+        }
+        // Exact name first, then other names containing the fragment
+        if (exact != null) {
+            results.addAll(0, exact);
+        }
+        return results;
     }
 
     /**
-     * Find similar template with hamming distance and element name filtering
+     * Add entry to the fingerprint, BK-tree and normalized name indexes
      */
-    private String findSimilarTemplate(String targetHash, String elementName) {
-        int minDistance = Integer.MAX_VALUE;
-        TemplateEntry bestMatch = null;
-
-        for (Map.Entry<String, TemplateEntry> entry : hashToTemplate.entrySet()) {
-            TemplateEntry candidate = entry.getValue();
-
-            // Filter by element name if provided
-            if (elementName != null && !elementName.isEmpty()) {
-                // Check if the template's element name contains the search element name
-                if (candidate.elementName == null ||
-                    !candidate.elementName.toLowerCase().contains(elementName.toLowerCase())) {
-                    continue; // Skip this template as it doesn't match the element name
-                }
-            }
-
-            int distance = hammingDistance(targetHash, entry.getKey());
-            if (distance < minDistance && distance <= 2) { // Stricter threshold - reduced from 5 to <=2
-                minDistance = distance;
-                bestMatch = candidate;
-            }
+    private void indexEntry(TemplateEntry entry) {
+        VisualFingerprint fingerprint = entry.fingerprint();
+        if (fingerprint == null) {
+            log.debug("Skipping template without fingerprint: {}", entry.path);
+            return;
         }
 
-        if (bestMatch != null && Files.exists(Paths.get(bestMatch.path))) {
-            log.info("Found similar template with distance {} for element '{}': {}",
-                     minDistance, elementName != null ? elementName : "any", bestMatch.path);
-            return bestMatch.path;
+        TemplateEntry previous = hashToTemplate.put(fingerprint, entry);
+        if (previous != null) {
+            removeFromHashTrees(previous);
+            removeFromNameIndex(previous);
+        }
+        averageHashTree.add(fingerprint.averageHash, entry);
+        differenceHashTree.add(fingerprint.differenceHash, entry);
+        perceptualHashTree.add(fingerprint.perceptualHash, entry);
+
+        if (entry.elementName != null) {
+            normalizedNameToTemplates.computeIfAbsent(
+                entry.elementName.toLowerCase(), k -> new java.util.concurrent.CopyOnWriteArrayList<>()
+            ).add(entry);
         }
+    }
 
-        return null;
+    private void unindexEntry(TemplateEntry entry) {
+        VisualFingerprint fingerprint = entry.fingerprint();
+        if (fingerprint != null) {
+            hashToTemplate.remove(fingerprint, entry);
+            removeFromHashTrees(entry);
+        }
+        removeFromNameIndex(entry);
     }
 
-    private int hammingDistance(String hash1, String hash2) {
-        int distance = 0;
-        int minLen = Math.min(hash1.length(), hash2.length());
+    private void removeFromHashTrees(TemplateEntry entry) {
+        VisualFingerprint fingerprint = entry.fingerprint();
+        averageHashTree.remove(fingerprint.averageHash, entry);
+        differenceHashTree.remove(fingerprint.differenceHash, entry);
+        perceptualHashTree.remove(fingerprint.perceptualHash, entry);
+    }
 
-        for (int i = 0; i < minLen; i++) {
-            if (hash1.charAt(i) != hash2.charAt(i)) {
-                distance++;
+    private void removeFromNameIndex(TemplateEntry entry) {
+        if (entry.elementName == null) {
+            return;
+        }
+        String key = entry.elementName.toLowerCase();
+        List<TemplateEntry> entries = normalizedNameToTemplates.get(key);
+        if (entries != null) {
+            entries.remove(entry);
+            if (entries.isEmpty()) {
+                normalizedNameToTemplates.remove(key, entries);
             }
         }
-
-        distance += Math.abs(hash1.length() - hash2.length());
-        return distance;
     }
 
     private List<String> searchInFolder(String folderPath, String elementName) {
@@ -447,19 +481,61 @@ public class VisualTemplateIndex {
                 IndexData data = objectMapper.readValue(indexPath.toFile(), IndexData.class);
 
                 // Rebuild maps from loaded data
+                int upgraded = 0;
                 for (TemplateEntry entry : data.templates) {
-                    hashToTemplate.put(entry.hash, entry);
+                    if (entry.fingerprint() == null && upgradeFingerprint(entry)) {
+                        upgraded++;
+                    }
+                    indexEntry(entry);
                     elementNameToTemplates.computeIfAbsent(
                         entry.elementName, k -> new ArrayList<>()
                     ).add(entry);
                 }
 
                 folderStats = new ConcurrentHashMap<>(data.folderStats);
+                if (upgraded > 0) {
+                    log.info("Computed visual fingerprints for {} legacy index entries", upgraded);
+                    saveIndex();
+                }
                 log.info("Loaded visual index with {} templates", hashToTemplate.size());
             }
         } catch (Exception e) {
             log.warn("Could not load visual index, starting fresh: {}", e.getMessage());
+            keepUnreadableIndex();
+        }
+    }
+
+    /**
+     * Move an index that failed to load aside, so the next save does not destroy it
+     */
+    private void keepUnreadableIndex() {
+        try {
+            Path indexPath = Paths.get(INDEX_FILE);
+            Path backup = Paths.get(INDEX_FILE + ".unreadable");
+            Files.move(indexPath, backup, StandardCopyOption.REPLACE_EXISTING);
+            log.warn("Unreadable visual index kept as {}", backup);
+        } catch (IOException e) {
+            log.debug("Could not keep unreadable visual index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Compute the fingerprint of an entry created before multi-hash fingerprints (average hash only)
+     */
+    private boolean upgradeFingerprint(TemplateEntry entry) {
+        try {
+            Path path = Paths.get(entry.path);
+            if (Files.exists(path)) {
+                BufferedImage image = javax.imageio.ImageIO.read(path.toFile());
+                if (image != null) {
+                    entry.applyFingerprint(VisualFingerprint.of(image));
+                    return true;
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Could not fingerprint legacy template {}: {}", entry.path, e.getMessage());
         }
+        return false;
     }
 
     private void saveIndex() {
@@ -471,7 +547,15 @@ public class VisualTemplateIndex {
             data.templates = new ArrayList<>(hashToTemplate.values());
             data.folderStats = folderStats;
 
-            objectMapper.writeValue(indexPath.toFile(), data);
+            // Write to a temp file and read it back before replacing the index, so a file that
+            // loadIndex() could not read never replaces a good one
+            Path tempPath = Paths.get(INDEX_FILE + ".tmp");
+            objectMapper.writeValue(tempPath.toFile(), data);
+            IndexData written = objectMapper.readValue(tempPath.toFile(), IndexData.class);
+            if (written.templates.size() != data.templates.size()) {
+                throw new IOException("index round-trip lost entries (" + written.templates.size() + " of " + data.templates.size() + ")");
+            }
+            Files.move(tempPath, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
             log.debug("Saved visual index with {} templates", data.templates.size());
 
         } catch (Exception e) {
@@ -482,19 +566,37 @@ public class VisualTemplateIndex {
     // Data classes for JSON serialization
     static class TemplateEntry {
         public String path;
-        public String hash;
+        public String hash;         // Average hash (hex), kept for older readers of the index
+        public String fingerprint;  // "aHash:dHash:pHash" (hex)
         public String elementName;
         public Date created;
         public int version;
 
+        // Parsed form of the fingerprint (not serialized)
+        private VisualFingerprint parsed;
+
         public TemplateEntry() {}
 
-        public TemplateEntry(String path, String hash, String elementName, Date created) {
+        public TemplateEntry(String path, VisualFingerprint fingerprint, String elementName, Date created) {
             this.path = path;
-            this.hash = hash;
             this.elementName = elementName;
             this.created = created;
             this.version = 1;
+            applyFingerprint(fingerprint);
+        }
+
+        VisualFingerprint fingerprint() {
+            if (parsed == null) {
+                parsed = VisualFingerprint.parse(fingerprint);
+            }
+            return parsed;
+        }
+
+        // Not named set*: Jackson would bind the "fingerprint" string to it
+        void applyFingerprint(VisualFingerprint value) {
+            this.parsed = value;
+            this.fingerprint = value.toString();
+            this.hash = String.format("%016x", value.averageHash);
         }
     }
 
@@ -109,7 +109,7 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
         setupPageElements();
         wait.until(ExpectedConditions.elementToBeClickable(ActivitiesMenu));
         ActivitiesMenu.click();
-        commonUtils.sleep(1000);
+        commonUtils.waitForFlutterStability(1000);
         Assert.assertTrue(ActivitiesPageHeader.isDisplayed());
     }
 
@@ -119,16 +119,16 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
         wait.until(ExpectedConditions.visibilityOf(AddActivityPlusButton_ActivitiesScreen));
         wait.until(ExpectedConditions.elementToBeClickable(AddActivityPlusButton_ActivitiesScreen));
         AddActivityPlusButton_ActivitiesScreen.click();
-        commonUtils.sleep(1000);
+        commonUtils.waitForFlutterStability(1000);
         wait.until(ExpectedConditions.elementToBeClickable(offsiteActivity_button));
         offsiteActivity_button.click();
-        commonUtils.sleep(1000);
+        commonUtils.waitForFlutterStability(1000);
     }
 
     public void clicksOnAddButtonToAddNewOffsiteActivity() {
         setupPageElements();
         activityADD_button.click();
-        commonUtils.sleep(2000);
+        commonUtils.waitForFlutterStability(2000);
         Assert.assertTrue(AddOffsiteActivityPageHeader.isDisplayed());
         System.out.println("Add Offsite Activity page displayed" + AddOffsiteActivityPageHeader.getText());
     }
@@ -146,7 +146,7 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
         }
 
         dropdownHelper.selectFromDropdown(customerList, customerName);
-        commonUtils.sleep(1000);
+        commonUtils.waitForFlutterStability(1000);
     }
 
     private void openCustomerDropdown() {
@@ -159,7 +159,7 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
                 "click",
                 null
         );
-        commonUtils.sleep(1000);
+        commonUtils.waitForFlutterStability(1000);
         Assert.assertTrue(SelectCustomerFrameHeader.isDisplayed());
     }
 
@@ -167,7 +167,7 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
         setupPageElements();
         wait.until(ExpectedConditions.elementToBeClickable(SelectCustomer_OK_button));
         SelectCustomer_OK_button.click();
-        commonUtils.sleep(2000);
+        commonUtils.waitForFlutterStability(2000);
         System.out.println("Clicked on OK button at Select Customer frame");
     }
     
@@ -186,7 +186,7 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
                 "focus",  // Action: focus and send text
                 description  // Text to send
             );
-            commonUtils.sleep(1000);
+            commonUtils.waitForFlutterStability(1000);
 
             // Use ValidationStrategy for validation
             String foundText = validator.validateTextEntry(descField, description, "description");
@@ -198,7 +198,7 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
             xpathHelper.saveScreenshotToFolder("description_error.png", "screenshots/validation_errors");
             throw new RuntimeException("Failed to enter description: " + e.getMessage());
         }
-        commonUtils.sleep(2000);
+        commonUtils.waitForFlutterStability(2000);
     }
 
     public void enterNameIntoTitleField(String title) {
@@ -218,7 +218,7 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
                     "focus",
                      titleText
             );
-            commonUtils.sleep(1000);
+            commonUtils.waitForFlutterStability(1000);
 
             // Use ValidationStrategy for validation
             String foundText = validator.validateTextEntry(titileField, "offAct", title, 3);
@@ -231,7 +231,7 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
             xpathHelper.saveScreenshotToFolder("offsiteActivity_title_field_error.png", "screenshots/validation_errors");
             throw new RuntimeException("Failed to enter title: " + e.getMessage());
         }
-        commonUtils.sleep(2000);
+        commonUtils.waitForFlutterStability(2000);
         //  store in SharedTestData class for access from portal UI classes
         SharedTestData.setCurrent_Title_OffsiteAct(Title_OffsiteAct);
     }
@@ -240,7 +240,7 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
         setupPageElements();
         xpathHelper.scrollToElement(performDateAsHeader, 5);
         Assert.assertTrue(performDateAsHeader.isDisplayed());
-        commonUtils.sleep(1000);
+        commonUtils.waitForFlutterStability(1000);
 
         try {
             String[] performDateXpaths = {performDate_xpath};
@@ -253,18 +253,18 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
                     "click",
                     null
             );
-            commonUtils.sleep(1000);
+            commonUtils.waitForFlutterStability(1000);
 
             //  Use ValidationStrategy for validation
             boolean clickPerformedDate = validator.validateButtonClick(performDateField, "offsiteActivity_performDate_field");
             log.info("SUCCESS: clicked on perform_date_field: {}", clickPerformedDate);
-            commonUtils.sleep(2000);
+            commonUtils.waitForFlutterStability(2000);
             Assert.assertTrue(performDate_field_CalendarHeader.isDisplayed(), "Calendar not opened");
 
             //  Click on today's date (current date)
             String selectedDate = selectTodayDate();
 
-            commonUtils.sleep(1000);
+            commonUtils.waitForFlutterStability(1000);
             calendar_OK_button.click();
             log.info("Date selection completed - Selected date: {}", selectedDate);
 
@@ -273,7 +273,7 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
             xpathHelper.saveScreenshotToFolder("offsiteActivity_performDate_field_error.png", "screenshots/validation_errors");
             throw new RuntimeException("Failed to select date: " + e.getMessage());
         }
-        commonUtils.sleep(2000);
+        commonUtils.waitForFlutterStability(2000);
     }
 
     private String selectTodayDate() {
@@ -294,7 +294,7 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
         xpathHelper.scrollToElement(performDateAsHeader, 5);
         wait.until(ExpectedConditions.visibilityOf(imgFieldHeaderText));
         Assert.assertTrue(imgFieldHeaderText.isDisplayed());
-        commonUtils.sleep(1000);
+        commonUtils.waitForFlutterStability(1000);
 
         //  click on image icon to add image
         String[] imgFieldXpaths = {};
@@ -306,16 +306,16 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
                 "click",
                 null
         );
-        commonUtils.sleep(1000);
+        commonUtils.waitForFlutterStability(1000);
 
         //  Use ValidationStrategy for validation
         boolean clickImgField = validator.validateButtonClick(imgField, "offsiteActivity_image_field");
         log.info("SUCCESS: clicked on image_field: {}", clickImgField);
-        commonUtils.sleep(1000);
+        commonUtils.waitForFlutterStability(1000);
         //  click on take image button
         wait.until(ExpectedConditions.elementToBeClickable(takeImageButton));
         takeImageButton.click();
-        commonUtils.sleep(2000);
+        commonUtils.waitForFlutterStability(2000);
 
         //  click camera shutter button on device using new shutter_click action
         String[] cameraShutterXpaths = {};  // No XPath needed for camera shutter
@@ -330,11 +330,11 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
 
         boolean clickShutter = (cameraShutterButton != null);
         log.info("Camera shutter click result: {}", clickShutter ? "SUCCESS" : "FAILED");
-        commonUtils.sleep(2000);
+        commonUtils.waitForFlutterStability(2000);
 
         try {
             if (imageEditHeader.isDisplayed()) {
-                commonUtils.sleep(1000);
+                commonUtils.waitForFlutterStability(1000);
                 imageEdit_No_button.click();
                 System.out.println("Clicked on Image Edit screen");
             }
@@ -342,23 +342,23 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
             log.info("Image Edit screen not displayed, proceeding");
         }
         //  Assert in both cases
-        commonUtils.sleep(1000);
+        commonUtils.waitForFlutterStability(1000);
         Assert.assertTrue(AddOffsiteActivityPageHeader.isDisplayed());
 
         log.info("Image capture completed and returned to Add Offsite Activity page");
-        commonUtils.sleep(2000);
+        commonUtils.waitForFlutterStability(2000);
     }
 
     public void clickOnSaveToSubmitOffsiteActivity() {
         saveButton.click();
         System.out.println("click on Save completed");
-        commonUtils.sleep(2000);
+        commonUtils.waitForFlutterStability(2000);
     }
 
     public void verifyActivityIsShowingInListAndFetchActivityDetailsForValidation(String customerName) {
         setupPageElements();
         wait.until(ExpectedConditions.refreshed(ExpectedConditions.visibilityOf(ActivitiesPageHeader)));
-        commonUtils.sleep(1000);
+        commonUtils.waitForFlutterStability(1000);
 
         try {
             // Get all offsite activities from the list
@@ -401,14 +401,14 @@ public class AddActivityApp_testUserPage extends MobileTestBase {
         } catch (Exception e) {
             log.error("Error during activity verification: {}", e.getMessage());
             xpathHelper.saveScreenshotToFolder("activity_verification_error.png", "screenshots/validation_errors");
-            commonUtils.sleep(2000);
+            commonUtils.waitForFlutterStability(2000);
         }
     }
 
     //  click on Activity to verify activity name
     private void fetchActivityDetails() {
         offsiteActivityName.click();
-        commonUtils.sleep(2000);
+        commonUtils.waitForFlutterStability(2000);
         wait.until(ExpectedConditions.visibilityOf(viewOffsiteActivityPageHeader));
         Assert.assertTrue(serialNo_offsiteActivity.isDisplayed());
 
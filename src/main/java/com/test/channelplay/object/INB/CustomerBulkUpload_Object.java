@@ -26,6 +26,8 @@ import java.util.stream.Collectors;
 public class CustomerBulkUpload_Object extends DriverBase {
 
     private static final Logger log = LoggerFactory.getLogger(CustomerBulkUpload_Object.class);
+    private static final String MAILER_EMAIL_DATETIME_XPATH = "//div[@class='wide-content-host']/descendant::div[@data-testid='SentReceivedSavedTime']";
+    private static final String DOWNLOADS_DIR = System.getProperty("user.dir") + File.separator + "downloads";
 
 
     @FindBy(xpath = Constants.CRM_menu)
@@ -101,7 +103,7 @@ public class CustomerBulkUpload_Object extends DriverBase {
     WebElement mailer_Logo;
     @FindBy(xpath = Constants.mailer_Inbox)
     WebElement mailer_Inbox;
-    @FindBy(xpath = "//div[@class='wide-content-host']/descendant::div[@data-testid='SentReceivedSavedTime']")
+    @FindBy(xpath = MAILER_EMAIL_DATETIME_XPATH)
     WebElement mailer_Inbox_email_dateTime;
     @FindBy(xpath = "//span[@title='Customers Upload Status']/ancestor::div[@role='heading']/parent::div/following-sibling::div/descendant::div[contains(text(), '_upload Customer.xlsx')]")
     WebElement mailer_inbox_CustomerUploadStatus_email_Attachment;
@@ -161,15 +163,14 @@ public class CustomerBulkUpload_Object extends DriverBase {
 
         if (loggedInProjectName.equalsIgnoreCase("IGSSL")) {
             log.info("User is on IGSSL, switching to IGSSL - Collection");
-            commonutils.sleep(1000);
+            webDriverUtils.waitFor("system name dropdown", ExpectedConditions.elementToBeClickable(selectSystemName_dropdown));
             selectSystemName_dropdown.click();
-            commonutils.sleep(1000);
             webDriverUtils.until(ExpectedConditions.elementToBeClickable(selectSystemName_IGSSL_Collection_option));
-            commonutils.sleep(1000);
+            webDriverUtils.waitFor("system name options", AdaptiveWait.domQuiet(AdaptiveWait.DEFAULT_QUIET_MILLIS));
             js.executeScript(JS_CLICK_SCRIPT, selectSystemName_IGSSL_Collection_option);
             ScreenshotHelper.captureScreenshot("select_IGSSL-Collection_option");
             log.info("Clicked IGSSL - Collection option");
-            commonutils.sleep(1000);
+            commonutils.waitForPageIdle("select IGSSL - Collection");
 
             //  Double-check the selection is still correct
             webDriverUtils.until(ExpectedConditions.textToBePresentInElement(selectSystemName, "IGSSL - Collection"));
@@ -180,20 +181,20 @@ public class CustomerBulkUpload_Object extends DriverBase {
             }
 
             js.executeScript(JS_CLICK_SCRIPT, selectSystem_Proceed_button);
-            commonutils.sleep(2000);
+            commonutils.waitForPageIdle("proceed with selected system");
             webDriverUtils.waitUntilVisible(getDriver(), CRM_menu, Duration.ofSeconds(5));
             webDriverUtils.until(ExpectedConditions.refreshed(ExpectedConditions.visibilityOf(CRM_menu)));
             Assert.assertTrue(CRM_menu.isDisplayed());
             webDriverUtils.until(ExpectedConditions.refreshed(ExpectedConditions.elementToBeClickable(switchSystemButton)));
             switchSystemButton.click();
             Assert.assertTrue(selectSystemPopupHeader.isDisplayed());
-            commonutils.sleep(1000);
+            commonutils.waitForPageIdle("reopen select system");
         }
 
         webDriverUtils.until(ExpectedConditions.visibilityOf(selectSystemName_IGSSL_Collection_selectedOption));
         Assert.assertTrue(selectSystemName_IGSSL_Collection_selectedOption.isDisplayed(), "IGSSL - Collection should be displayed");
         selectSystem_Cancel_button.click();
-        commonutils.sleep(1000);
+        commonutils.waitForPageIdle("close select system");
     }
 
     public void userClicksOnMenuCRMAndSubmenuCustomersForINB() {
@@ -204,7 +205,7 @@ public class CustomerBulkUpload_Object extends DriverBase {
         if (!customerList_rows.isEmpty()) {
             webDriverUtils.until(ExpectedConditions.visibilityOf(SerialNo_column_text));
         }
-        commonutils.sleep(1000);
+        commonutils.waitForPageIdle("customers page");
 
         //  get the test start time for future use
         testStartTime();
@@ -212,15 +213,15 @@ public class CustomerBulkUpload_Object extends DriverBase {
 
     public boolean userIsOnCustomersPageForINB() {
         boolean customerPageTitle = CustomersPage_title.isDisplayed();
-        commonutils.sleep(1000);
+        commonutils.waitForPageIdle("customers page");
         return customerPageTitle;
     }
 
     public void clicksOnDropdownUnderAddButtonAndThenClickOnBulkUploadOptionForINB() {
         Add_button_dropdown.click();
-        commonutils.sleep(1000);
+        webDriverUtils.waitFor("bulk upload option", ExpectedConditions.elementToBeClickable(BulkUpload_dropdown_option));
         BulkUpload_dropdown_option.click();
-        commonutils.sleep(1000);
+        commonutils.waitForPageIdle("open bulk upload");
     }
 
     public void uploadTheExcelFileAndValidateMapFieldsAndValidateDataPagesAndUploadValidatedRecordsForINB() {
@@ -242,7 +243,7 @@ public class CustomerBulkUpload_Object extends DriverBase {
 
             //  Iterate and upload each file
             uploadFile(file.getAbsolutePath());
-            commonutils.sleep(2000);
+            webDriverUtils.waitFor("map fields page", ExpectedConditions.visibilityOf(MapFields_pageHeader_text));
 
             //  Process the file one-by-one over UI
             processUploadedFile();
@@ -279,9 +280,9 @@ public class CustomerBulkUpload_Object extends DriverBase {
     //  upload multiple xlsx files
     public void uploadFile(String filePath) {
         fileUpload_input.sendKeys(filePath);
-        commonutils.sleep(2000);
+        webDriverUtils.waitFor("file attached", ExpectedConditions.elementToBeClickable(Upload_button));
         Upload_button.click();
-        commonutils.sleep(1000);
+        commonutils.waitForPageIdle("upload file");
     }
 
     //  Process the uploaded file through UI steps
@@ -307,7 +308,7 @@ public class CustomerBulkUpload_Object extends DriverBase {
         extractRecordsAndErrors();
         log.info("Total Records from Excel on UI: {}", totalRecords_value);
         log.info("Error Found during validation on UI: {}", ErrorFound_value);
-        commonutils.sleep(1000);
+        commonutils.waitForPageIdle("validate data page");
 
         UploadValidatedRecords_button.click();
 
@@ -330,7 +331,7 @@ public class CustomerBulkUpload_Object extends DriverBase {
         } else {
             log.info("Bulk Upload Failed");
         }
-        commonutils.sleep(2000);
+        commonutils.waitForPageIdle("bulk upload result");
         webDriverUtils.waitUntilVisible(getDriver(), SerialNo_column_text, Duration.ofSeconds(20));
     }
 
@@ -386,7 +387,7 @@ public class CustomerBulkUpload_Object extends DriverBase {
         webDriverUtils.waitUntilVisible(getDriver(), mailer_HomeSignIn_button, Duration.ofSeconds(10));
         webDriverUtils.actionsToMoveToElement(getDriver(), mailer_HomeSignIn_button);
         mailer_HomeSignIn_button.click();
-        commonutils.sleep(1000);
+        webDriverUtils.waitFor("mailer sign-in window", ExpectedConditions.numberOfWindowsToBe(2));
         // Switch to new window
         Set<String> handles =  getDriver().getWindowHandles();
         for(String windowHandle  : handles)
@@ -394,7 +395,7 @@ public class CustomerBulkUpload_Object extends DriverBase {
             if(!windowHandle.equals(parentWindow))
             {
                 getDriver().switchTo().window(windowHandle);
-                commonutils.sleep(1000);
+                webDriverUtils.waitFor("mailer sign-in page", ExpectedConditions.visibilityOf(mailer_EnterEmailId));
                 System.out.println("Entered into new window");
 
                 //  perform emailer operations on new window
@@ -402,7 +403,6 @@ public class CustomerBulkUpload_Object extends DriverBase {
                 System.out.println("Entered into new performEmailerTask method");
 
                 //  close the child window
-                commonutils.sleep(1000);
                 getDriver().close();
                 getDriver().switchTo().window(parentWindow);
                 System.out.println("Switched back to parent window");
@@ -445,9 +445,8 @@ public class CustomerBulkUpload_Object extends DriverBase {
         } else {
             mailer_Inbox.click();
         }
-        commonutils.sleep(1000);
 
-        //  calling wait for emil method after clicking inbox
+        //  calling wait for emil method after clicking inbox (it polls the message list itself)
         waitForEmailToReceive(2, 3);
 
         List<WebElement> CustomerUploadStatus_emailList = getDriver().findElements(By.xpath("//span[text()='Customers Upload Status']"));
@@ -457,42 +456,65 @@ public class CustomerBulkUpload_Object extends DriverBase {
         if (emailCount > 10) {
             CustomerUploadStatus_emailList = CustomerUploadStatus_emailList.subList(emailCount - 10, emailCount);
         }
-        commonutils.sleep(1000);
+        if (!CustomerUploadStatus_emailList.isEmpty()) {
+            webDriverUtils.waitFor("email list", ExpectedConditions.elementToBeClickable(CustomerUploadStatus_emailList.get(0)));
+        }
+
+        //  count attachments already in downloads, so the move waits for the ones clicked below
+        int downloadsBefore = countDownloadedUploadFiles();
+        int downloadsRequested = 0;
+        WebElement previousDateTime = null;
+        String previousDateTimeText = null;
 
         for (WebElement CustomerUploadStatus_email : CustomerUploadStatus_emailList) {
             CustomerUploadStatus_email.click();
-            commonutils.sleep(1000);
-            String email_datetime = mailer_Inbox_email_dateTime.getText();
+            if (previousDateTime != null) {
+                //  the reading pane shows the previous email until this one renders; two emails sent in the
+                //  same minute keep the same text, so that case only ends on the timeout (logged, not thrown)
+                webDriverUtils.waitFor("open email", ExpectedConditions.or(
+                        ExpectedConditions.stalenessOf(previousDateTime),
+                        ExpectedConditions.not(ExpectedConditions.textToBePresentInElement(mailer_Inbox_email_dateTime, previousDateTimeText))));
+            }
+            webDriverUtils.waitFor("open email", ExpectedConditions.visibilityOf(mailer_Inbox_email_dateTime));
+            previousDateTime = getDriver().findElement(By.xpath(MAILER_EMAIL_DATETIME_XPATH));
+            String email_datetime = previousDateTime.getText();
+            previousDateTimeText = email_datetime;
             System.out.println("Email Date and Time on UI: " + email_datetime);
             //  Convert email timestamp to LocalDateTime
             LocalDateTime emailTestStartDateTime = convertEmailDateTime(email_datetime);
             System.out.println("formatted Email Date and Time: " + emailTestStartDateTime);
-            commonutils.sleep(1000);
 
             if (emailTestStartDateTime.isAfter(UITestStartDateTime) || emailTestStartDateTime.isEqual(UITestStartDateTime)) {
                 log.info("Email received at {} after test start time {}", emailTestStartDateTime, UITestStartDateTime);
                 mailer_inbox_CustomerUploadStatus_email_Attachment.click();
                 mailer_inbox_email_attachment_Download_button.click();
                 log.info("Downloading attachment...");
+                downloadsRequested++;
                 mailer_Attachement_Close_button.click();
-                commonutils.sleep(2000);
+                webDriverUtils.waitFor("close attachment preview", ExpectedConditions.invisibilityOf(mailer_Attachement_Close_button));
             } else {
                 log.info("Email was received before the test started. Skipping download.");
             }
         }
-        commonutils.sleep(2000);
+
+        //  downloads finish in the browser with no page signal: wait on the downloads folder instead
+        int downloadsExpected = downloadsBefore + downloadsRequested;
+        webDriverUtils.waitFor("attachment downloads", d -> countDownloadedUploadFiles() >= downloadsExpected && !hasPartialDownloads());
 
         //  deleting all emails from inbox at the end of emailer operations
         if (mailer_inbox_Select_button != null) {
             mailer_inbox_Select_button.click();
-            commonutils.sleep(1000);
+            webDriverUtils.waitFor("select all emails", ExpectedConditions.elementToBeClickable(mailer_inbox_Select_All_checkbox));
             mailer_inbox_Select_All_checkbox.click();
-            commonutils.sleep(1000);
+            webDriverUtils.waitFor("empty folder", ExpectedConditions.elementToBeClickable(mailer_inbox_EmptyFolder_button));
             mailer_inbox_EmptyFolder_button.click();
-            commonutils.sleep(1000);
+            webDriverUtils.waitFor("delete all prompt", ExpectedConditions.or(
+                    ExpectedConditions.visibilityOf(mailer_inbox_DeleteAllEmail_Confirm_button),
+                    ExpectedConditions.visibilityOf(mailer_EmptyInbox_message)));
             try {
                 if (mailer_inbox_DeleteAllEmail_Confirm_button != null && mailer_inbox_DeleteAllEmail_Confirm_button.isDisplayed()) {
                     mailer_inbox_DeleteAllEmail_Confirm_button.click();
+                    webDriverUtils.waitFor("empty inbox", ExpectedConditions.visibilityOf(mailer_EmptyInbox_message));
                     log.info("'Delete All' prompt appeared..All emails deleted from inbox, proceeding...");
                     return;
                 }
@@ -503,7 +525,6 @@ public class CustomerBulkUpload_Object extends DriverBase {
         } else {
             log.warn("Select button is null, skipping focused inbox cleanup");
         }
-        commonutils.sleep(1000);
 
         //  moving file to bulkUpload_Downloaded_Files dir
         moveLatestUploadedFiles();
@@ -525,7 +546,7 @@ public class CustomerBulkUpload_Object extends DriverBase {
         }
 
         //  getting source and target dir for moving files
-        String sourceDir = System.getProperty("user.dir") + File.separator + "downloads";
+        String sourceDir = DOWNLOADS_DIR;
         String targetDir = System.getProperty("user.dir") + File.separator + "bulkUpload_Downloaded_Files";
 
         //  Manage file count in target folder
@@ -556,6 +577,18 @@ public class CustomerBulkUpload_Object extends DriverBase {
         }
     }
 
+    //  number of finished bulk upload result attachments in the downloads folder (including "(1)" renames)
+    private int countDownloadedUploadFiles() {
+        File[] files = new File(DOWNLOADS_DIR).listFiles((dir, name) -> name.contains("_upload Customer") && name.endsWith(".xlsx"));
+        return files == null ? 0 : files.length;
+    }
+
+    //  true while the browser is still writing a download (Chrome .crdownload, Firefox .part)
+    private boolean hasPartialDownloads() {
+        File[] files = new File(DOWNLOADS_DIR).listFiles((dir, name) -> name.endsWith(".crdownload") || name.endsWith(".part"));
+        return files != null && files.length > 0;
+    }
+
     //  method to convert email date-Time to LocalDateTime
     private LocalDateTime convertEmailDateTime(String emailDateTimeStr) {
         try {
@@ -586,7 +619,7 @@ public class CustomerBulkUpload_Object extends DriverBase {
                 if (elapsedTime > 0 && elapsedTime % 30 == 0) {
                     log.info("Refreshing page to check for new emails...");
                     getDriver().navigate().refresh();
-                    commonutils.sleep(2000); // Wait for page to load after refresh
+                    webDriverUtils.waitFor("mailbox refresh", ExpectedConditions.visibilityOf(mailer_Logo));
                 }
                 
                 List<WebElement> emailList = getDriver().findElements(By.xpath("//span[text()='Customers Upload Status']"));
@@ -0,0 +1,218 @@
+package com.test.channelplay.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.FluentWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Declarative waits for web page objects, used in place of fixed commonutils.sleep() padding
+ *
+ * A step waits for one or more conditions, polling every Constants.TIMINGS_POLL_MILLIS, and returns
+ * as soon as all of them hold. Element conditions come from Selenium's ExpectedConditions; this class
+ * adds page-level ones:
+ *   angularIdle()     - every Angular testability reports stable (no pending zone tasks)
+ *   agGridIdle()      - no visible ag-grid loading overlay or loading rows
+ *   domQuiet(ms)      - no DOM mutation for ms (MutationObserver installed into the page)
+ *   networkQuiet(ms)  - no XHR/fetch in flight for ms (NetworkIdleTracker via DevTools, or counters
+ *                       installed into the page when the browser has no DevTools)
+ *   pageIdle()        - all of the above
+ * The in-page observers only see activity that starts after their first check on the current document.
+ *
+ * Actual wait time is recorded per step name and reported by logStats().
+ *
+ * Usage:
+ *   webDriverUtils.waitFor("open bulk upload menu", ExpectedConditions.elementToBeClickable(BulkUpload_dropdown_option));
+ *   commonutils.waitForPageIdle("select system");
+ */
+public class AdaptiveWait {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveWait.class);
+
+    public static final long DEFAULT_QUIET_MILLIS = 300;
+
+    private static final String ANGULAR_IDLE_SCRIPT =
+            "if (typeof window.getAllAngularTestabilities !== 'function') return true;" +
+            "return window.getAllAngularTestabilities().every(function (t) { return t.isStable(); });";
+
+    private static final String AG_GRID_IDLE_SCRIPT =
+            "var busy = document.querySelectorAll('.ag-overlay-loading-wrapper, .ag-overlay-loading-center, .ag-loading');" +
+            "for (var i = 0; i < busy.length; i++) { if (busy[i].offsetParent !== null) return false; }" +
+            "return true;";
+
+    // Returns milliseconds since the last DOM mutation (0 right after installing the observer)
+    private static final String DOM_QUIET_SCRIPT =
+            "if (!window.__e2eDom) {" +
+            "  window.__e2eDom = { last: Date.now() };" +
+            "  new MutationObserver(function () { window.__e2eDom.last = Date.now(); })" +
+            "    .observe(document, { childList: true, subtree: true, attributes: true, characterData: true });" +
+            "  return 0;" +
+            "}" +
+            "return Date.now() - window.__e2eDom.last;";
+
+    // Returns milliseconds since the last XHR/fetch finished, or -1 while any is in flight
+    private static final String NETWORK_QUIET_SCRIPT =
+            "if (!window.__e2eNet) {" +
+            "  var net = window.__e2eNet = { pending: 0, last: Date.now() };" +
+            "  var done = function () { net.pending = Math.max(0, net.pending - 1); net.last = Date.now(); };" +
+            "  var send = XMLHttpRequest.prototype.send;" +
+            "  XMLHttpRequest.prototype.send = function () {" +
+            "    net.pending++; net.last = Date.now();" +
+            "    this.addEventListener('loadend', done);" +
+            "    return send.apply(this, arguments);" +
+            "  };" +
+            "  if (window.fetch) {" +
+            "    var fetch = window.fetch;" +
+            "    window.fetch = function () {" +
+            "      net.pending++; net.last = Date.now();" +
+            "      return fetch.apply(this, arguments).finally(done);" +
+            "    };" +
+            "  }" +
+            "  return 0;" +
+            "}" +
+            "return window.__e2eNet.pending > 0 ? -1 : Date.now() - window.__e2eNet.last;";
+
+    private static final Map<String, long[]> stepStats = new TreeMap<>();  // step -> {count, totalMs, maxMs, timeouts}
+
+    private AdaptiveWait() {}
+
+    /**
+     * Wait until every condition holds (a timeout is logged, not thrown - the next action reports the failure)
+     * @param driver Web driver
+     * @param step Name the wait time is recorded under
+     * @param timeout Ceiling for this wait
+     * @param conditions Conditions checked in order on each poll
+     * @return true if all conditions were met before the timeout
+     */
+    public static boolean until(WebDriver driver, String step, Duration timeout, ExpectedCondition<?>... conditions) {
+        long start = System.currentTimeMillis();
+        boolean met = true;
+        try {
+            new FluentWait<>(driver)
+                    .withTimeout(timeout)
+                    .pollingEvery(Duration.ofMillis(Constants.TIMINGS_POLL_MILLIS))
+                    .ignoring(NoSuchElementException.class, StaleElementReferenceException.class)
+                    .until(d -> {
+                        for (ExpectedCondition<?> condition : conditions) {
+                            Object result = condition.apply(d);
+                            if (result == null || Boolean.FALSE.equals(result)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    });
+        } catch (TimeoutException te) {
+            met = false;
+            logger.warn("Wait '{}' not satisfied after {} ms", step, timeout.toMillis());
+        } finally {
+            long elapsed = System.currentTimeMillis() - start;
+            record(step, elapsed, met);
+            logger.debug("Wait '{}' took {} ms.", step, elapsed);
+        }
+        return met;
+    }
+
+    /**
+     * All Angular testabilities are stable (true on pages without Angular)
+     */
+    public static ExpectedCondition<Boolean> angularIdle() {
+        return describe("Angular idle", driver -> Boolean.TRUE.equals(script(driver, ANGULAR_IDLE_SCRIPT)));
+    }
+
+    /**
+     * No ag-grid loading overlay or loading rows are visible
+     */
+    public static ExpectedCondition<Boolean> agGridIdle() {
+        return describe("ag-grid idle", driver -> Boolean.TRUE.equals(script(driver, AG_GRID_IDLE_SCRIPT)));
+    }
+
+    /**
+     * No DOM mutation for the given time
+     */
+    public static ExpectedCondition<Boolean> domQuiet(long quietMillis) {
+        return describe("DOM quiet for " + quietMillis + " ms", driver -> elapsed(script(driver, DOM_QUIET_SCRIPT)) >= quietMillis);
+    }
+
+    /**
+     * No XHR/fetch in flight for the given time (DevTools tracker when the driver has one, in-page counters otherwise)
+     */
+    public static ExpectedCondition<Boolean> networkQuiet(long quietMillis) {
+        return describe("network quiet for " + quietMillis + " ms", driver -> {
+            NetworkIdleTracker tracker = DriverBase.tnetwork.get();
+            if (tracker != null && tracker.isFor(driver)) {
+                return tracker.getQuietMillis() >= quietMillis;
+            }
+            return elapsed(script(driver, NETWORK_QUIET_SCRIPT)) >= quietMillis;
+        });
+    }
+
+    /**
+     * Angular, ag-grid, network and DOM are all idle
+     */
+    public static ExpectedCondition<Boolean> pageIdle() {
+        ExpectedCondition<Boolean> angular = angularIdle();
+        ExpectedCondition<Boolean> grid = agGridIdle();
+        ExpectedCondition<Boolean> network = networkQuiet(DEFAULT_QUIET_MILLIS);
+        ExpectedCondition<Boolean> dom = domQuiet(DEFAULT_QUIET_MILLIS);
+        return describe("page idle", driver -> angular.apply(driver) && grid.apply(driver) && network.apply(driver) && dom.apply(driver));
+    }
+
+    /**
+     * Log recorded wait time per step
+     */
+    public static void logStats() {
+        synchronized (stepStats) {
+            if (stepStats.isEmpty()) {
+                return;
+            }
+            logger.info("Adaptive waits (step: count, total ms, max ms, timeouts):");
+            for (Map.Entry<String, long[]> entry : stepStats.entrySet()) {
+                long[] stats = entry.getValue();
+                logger.info("  {}: {}, {}, {}, {}", entry.getKey(), stats[0], stats[1], stats[2], stats[3]);
+            }
+        }
+    }
+
+    private static void record(String step, long elapsedMs, boolean met) {
+        synchronized (stepStats) {
+            long[] stats = stepStats.computeIfAbsent(step, k -> new long[4]);
+            stats[0]++;
+            stats[1] += elapsedMs;
+            stats[2] = Math.max(stats[2], elapsedMs);
+            if (!met) {
+                stats[3]++;
+            }
+        }
+    }
+
+    private static Object script(WebDriver driver, String script) {
+        return ((JavascriptExecutor) driver).executeScript(script);
+    }
+
+    private static long elapsed(Object scriptResult) {
+        return scriptResult instanceof Number ? ((Number) scriptResult).longValue() : -1;
+    }
+
+    private static ExpectedCondition<Boolean> describe(String description, ExpectedCondition<Boolean> condition) {
+        return new ExpectedCondition<Boolean>() {
+            @Override
+            public Boolean apply(WebDriver driver) {
+                return condition.apply(driver);
+            }
+
+            @Override
+            public String toString() {
+                return description;
+            }
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.test.channelplay.utils;
 
+import com.test.channelplay.mobile.config_Helper.UiSettleDetector;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.StaleElementReferenceException;
@@ -42,6 +43,14 @@ public class CommonUtils extends DriverBase {
         new WebDriverWait(getDriver(), Duration.ofSeconds(com.test.channelplay.utils.Constants.TIMINGS_EXPLICIT_TIMEOUT))
                 .until(driver -> (JavascriptExecutor) driver)
                 .executeScript("return document.readyState == 'complete'");
+        //  readyState stays complete in the SPA, so also wait for its API calls to finish
+        waitForNetworkIdle(AdaptiveWait.DEFAULT_QUIET_MILLIS);
+    }
+
+    //  Wait until no XHR/fetch request has been in flight for quietMillis
+    public boolean waitForNetworkIdle(long quietMillis) {
+        return AdaptiveWait.until(getDriver(), "network idle", Duration.ofSeconds(com.test.channelplay.utils.Constants.TIMINGS_EXPLICIT_TIMEOUT),
+                AdaptiveWait.networkQuiet(quietMillis));
     }
 
     private void verifyOnCorrectPage(String title) {
@@ -105,6 +114,13 @@ public class CommonUtils extends DriverBase {
     }
 
 
+    //  Wait until Angular, ag-grid, network and DOM are idle (use after actions instead of sleep)
+    public boolean waitForPageIdle(String step) {
+        return AdaptiveWait.until(getDriver(), step, Duration.ofSeconds(com.test.channelplay.utils.Constants.TIMINGS_EXPLICIT_TIMEOUT),
+                AdaptiveWait.pageIdle());
+    }
+
+
     public void sleep(long s) {
         try {
             Thread.sleep(s);
@@ -174,13 +190,14 @@ public class CommonUtils extends DriverBase {
     }
 
 
-    //  Delay to let Flutter finish rebuilding
+    //  Wait for Flutter to finish rebuilding (returns as soon as the UI stops changing)
     public void waitForFlutterStability() {
-        try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        UiSettleDetector.waitForSettle(MobileDriverManager.getDriver());
+    }
+
+    //  Same, with a ceiling for this wait (ms) - use in place of a fixed sleep after a mobile action
+    public void waitForFlutterStability(long maxWaitMs) {
+        UiSettleDetector.waitForSettle(MobileDriverManager.getDriver(), maxWaitMs);
     }
 
 
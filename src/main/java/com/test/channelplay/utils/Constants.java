@@ -8,6 +8,7 @@ public class Constants {
     
     public static final long TIMINGS_EXPLICIT_TIMEOUT = 20;
     public static final long TIMINGS_IMPLICIT_TIMEOUT = 10;
+    public static final long TIMINGS_POLL_MILLIS = 100;
 
 
     //  ## Common Xpath
@@ -17,6 +17,7 @@ import java.util.HashMap;
 public class DriverBase {
     private WebDriver driver;
     public static ThreadLocal<WebDriver> tdriver = new ThreadLocal<>();
+    public static ThreadLocal<NetworkIdleTracker> tnetwork = new ThreadLocal<>();
     private final String downloadFilepath = System.getProperty("user.dir") + File.separator + "downloads";
 
 
@@ -82,6 +83,9 @@ public class DriverBase {
         driver.manage().window().maximize();
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(Constants.TIMINGS_IMPLICIT_TIMEOUT));
         tdriver.set(driver);
+
+        //  Count in-flight XHR/fetch requests through DevTools (Chromium only, null otherwise)
+        tnetwork.set(NetworkIdleTracker.start(driver));
         return getDriver();
     }
 
@@ -89,4 +93,16 @@ public class DriverBase {
         return tdriver.get();
     }
 
+    public NetworkIdleTracker getNetworkTracker() {
+        return tnetwork.get();
+    }
+
+    public void stopNetworkTracking() {
+        NetworkIdleTracker tracker = tnetwork.get();
+        if (tracker != null) {
+            tracker.stop();
+        }
+        tnetwork.remove();
+    }
+
 }
\ No newline at end of file
@@ -1,15 +1,23 @@
 package com.test.channelplay.utils;
 
+import com.test.channelplay.mobile.config_Helper.PageSourceSnapshot;
+import com.test.channelplay.mobile.config_Helper.ScreenshotProvider;
+import com.test.channelplay.mobile.config_Helper.TemplateConfig;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.ios.IOSDriver;
 import io.appium.java_client.android.options.UiAutomator2Options;
 import io.appium.java_client.ios.options.XCUITestOptions;
+import io.appium.java_client.proxy.Helpers;
+import io.appium.java_client.proxy.MethodCallListener;
+import org.openqa.selenium.Capabilities;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URL;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 public class MobileDriverManager {
 
@@ -19,6 +27,9 @@ public class MobileDriverManager {
 
     private static final ThreadLocal<AppiumDriver> ldriver = new ThreadLocal<>();
 
+    // Implicit wait of every mobile driver (lookups that must fail fast switch it off and restore this)
+    public static final Duration IMPLICIT_WAIT = Duration.ofSeconds(10);
+
     // Appium 3.x doesn't use /wd/hub
     private static final String APPIUM_SERVER_URL = "http://127.0.0.1:4723";
 
@@ -31,6 +42,25 @@ public class MobileDriverManager {
         ldriver.set(appiumDriver);
     }
 
+    //  Drivers are created through Appium's method-call proxy so screen-changing commands drop the
+    //  shared screenshot and page source (see ScreenshotProvider, PageSourceSnapshot); plain construction
+    //  when both caches are disabled
+    private static <T extends AppiumDriver> T createDriver(Class<T> driverClass, URL serverUrl, Capabilities options) throws Exception {
+        Object[] args = {serverUrl, options};
+        Class<?>[] argTypes = {URL.class, Capabilities.class};
+        List<MethodCallListener> listeners = new ArrayList<>();
+        if (TemplateConfig.getScreenshotCacheTtlMs() > 0) {
+            listeners.add(ScreenshotProvider.ACTION_LISTENER);
+        }
+        if (TemplateConfig.getPageSourceCacheTtlMs() > 0) {
+            listeners.add(PageSourceSnapshot.ACTION_LISTENER);
+        }
+        if (!listeners.isEmpty()) {
+            return Helpers.createProxy(driverClass, args, argTypes, listeners);
+        }
+        return driverClass.getConstructor(argTypes).newInstance(args);
+    }
+
 
 
     //  Default method - determines automation type based on property or defaults to UiAutomator2
@@ -78,8 +108,8 @@ public class MobileDriverManager {
             System.out.println("App Path: " + appPath);
             System.out.println("Automation: Flutter");
 
-            AndroidDriver androidDriver = new AndroidDriver(appiumServerURL, options);
-            androidDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+            AndroidDriver androidDriver = createDriver(AndroidDriver.class, appiumServerURL, options);
+            androidDriver.manage().timeouts().implicitlyWait(IMPLICIT_WAIT);
 
             setDriver(androidDriver);
             log.info("Android Flutter Driver initialized successfully");
@@ -129,8 +159,8 @@ public class MobileDriverManager {
             System.out.println("App Path: " + appPath);
             System.out.println("Automation: UiAutomator2");
 
-            AndroidDriver androidDriver = new AndroidDriver(appiumServerURL, options);
-            androidDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+            AndroidDriver androidDriver = createDriver(AndroidDriver.class, appiumServerURL, options);
+            androidDriver.manage().timeouts().implicitlyWait(IMPLICIT_WAIT);
 
             setDriver(androidDriver);
             log.info("Android UiAutomator2 Driver initialized successfully");
@@ -170,8 +200,8 @@ public class MobileDriverManager {
             options.setCapability("appium:fullReset", false);
 
             URL appiumServerURL = new URL(APPIUM_SERVER_URL);
-            IOSDriver iosDriver = new IOSDriver(appiumServerURL, options);
-            iosDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+            IOSDriver iosDriver = createDriver(IOSDriver.class, appiumServerURL, options);
+            iosDriver.manage().timeouts().implicitlyWait(IMPLICIT_WAIT);
 
             setDriver(iosDriver);
             System.out.println("iOS Driver initialized successfully");
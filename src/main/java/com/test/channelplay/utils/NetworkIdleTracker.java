@@ -0,0 +1,142 @@
+package com.test.channelplay.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.v127.network.Network;
+import org.openqa.selenium.devtools.v127.network.model.ResourceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts in-flight XHR/fetch requests per browser tab through Chrome DevTools (Network domain)
+ *
+ * Unlike the in-page counters in AdaptiveWait this sees every request, including the ones started
+ * before a wait begins and the ones issued from workers. DevTools follows one tab at a time: the
+ * tracker re-attaches when the current window handle changes, and a tab's count starts from zero
+ * (with a fresh quiet period) each time it is attached again.
+ *
+ * Created by DriverBase.initialize() for Chromium browsers; null when DevTools is not available.
+ *
+ * Usage:
+ *   commonutils.waitForNetworkIdle(500);
+ */
+public class NetworkIdleTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(NetworkIdleTracker.class);
+
+    private final WebDriver driver;
+    private final DevTools devTools;
+    private final Map<String, TabState> tabs = new ConcurrentHashMap<>();
+    private String attachedHandle;
+
+    private NetworkIdleTracker(WebDriver driver, DevTools devTools) {
+        this.driver = driver;
+        this.devTools = devTools;
+    }
+
+    /**
+     * Start tracking the driver's current tab
+     * @return Tracker, or null if the browser has no DevTools support
+     */
+    public static NetworkIdleTracker start(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            return null;
+        }
+        try {
+            NetworkIdleTracker tracker = new NetworkIdleTracker(driver, ((HasDevTools) driver).getDevTools());
+            tracker.ensureAttached();
+            logger.info("DevTools network tracking enabled");
+            return tracker;
+        } catch (Exception e) {
+            logger.warn("DevTools network tracking not available: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Check whether this tracker belongs to a driver
+     */
+    public boolean isFor(WebDriver webDriver) {
+        return driver == webDriver;
+    }
+
+    /**
+     * Milliseconds since the current tab's last XHR/fetch finished
+     * @return -1 while any request is in flight
+     */
+    public long getQuietMillis() {
+        TabState tab = ensureAttached();
+        if (!tab.inFlight.isEmpty()) {
+            return -1;
+        }
+        return System.currentTimeMillis() - tab.lastActivity;
+    }
+
+    /**
+     * Number of XHR/fetch requests in flight on the current tab
+     */
+    public int getInFlightCount() {
+        return ensureAttached().inFlight.size();
+    }
+
+    /**
+     * Stop listening and detach from the browser
+     */
+    public synchronized void stop() {
+        try {
+            devTools.clearListeners();
+            devTools.disconnectSession();
+        } catch (Exception e) {
+            logger.debug("Failed to detach DevTools session: {}", e.getMessage());
+        }
+        attachedHandle = null;
+        tabs.clear();
+    }
+
+    private synchronized TabState ensureAttached() {
+        String handle = driver.getWindowHandle();
+        if (handle.equals(attachedHandle)) {
+            return tabs.get(handle);
+        }
+
+        TabState tab = new TabState();
+        tabs.put(handle, tab);
+
+        devTools.clearListeners();
+        devTools.createSession(handle);
+        devTools.send(Network.enable(Optional.empty(), Optional.empty(), Optional.empty()));
+        devTools.addListener(Network.requestWillBeSent(), event -> {
+            if (isTracked(event.getType())) {
+                tab.inFlight.add(event.getRequestId().toString());
+                tab.lastActivity = System.currentTimeMillis();
+            }
+        });
+        devTools.addListener(Network.loadingFinished(), event -> tab.finish(event.getRequestId().toString()));
+        devTools.addListener(Network.loadingFailed(), event -> tab.finish(event.getRequestId().toString()));
+
+        attachedHandle = handle;
+        logger.debug("DevTools network tracking attached to tab {}", handle);
+        return tab;
+    }
+
+    private static boolean isTracked(Optional<ResourceType> type) {
+        return type.isPresent() && (type.get() == ResourceType.XHR || type.get() == ResourceType.FETCH);
+    }
+
+    private static class TabState {
+        final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+        volatile long lastActivity = System.currentTimeMillis();
+
+        void finish(String requestId) {
+            if (inFlight.remove(requestId)) {
+                lastActivity = System.currentTimeMillis();
+            }
+        }
+    }
+}
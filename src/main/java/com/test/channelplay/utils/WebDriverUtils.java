@@ -27,6 +27,11 @@ public class WebDriverUtils extends DriverBase {
 
     }
 
+    //  Wait for conditions instead of a fixed sleep; the wait time is recorded under the step name
+    public boolean waitFor(String step, ExpectedCondition<?>... conditions) {
+        return AdaptiveWait.until(getDriver(), step, Duration.ofSeconds(Constants.TIMINGS_EXPLICIT_TIMEOUT), conditions);
+    }
+
     public WebElement waitUntilVisible(WebDriver webDriver, WebElement element, Duration wait) {
         try {
         new FluentWait<>(webDriver)
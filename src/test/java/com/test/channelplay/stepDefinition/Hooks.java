@@ -1,5 +1,6 @@
 package com.test.channelplay.stepDefinition;
 
+import com.test.channelplay.utils.AdaptiveWait;
 import com.test.channelplay.utils.DriverBase;
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
@@ -47,7 +48,11 @@ public class Hooks extends DriverBase {
 
     @After(order = 0)
     public void tearDown() {
+        //  Report actual wait time per step (replaces fixed sleeps)
+        AdaptiveWait.logStats();
+
         if (driver != null) {
+            stopNetworkTracking();
             driver.quit();
             killChromeDriverProcess();
             driver = null;
@@ -1,8 +1,17 @@
 package com.test.channelplay.stepDefinition_Mobile;
 
 import com.test.channelplay.mobile.config_Helper.AIElementFinder;
+import com.test.channelplay.mobile.config_Helper.DebugImageWriter;
+import com.test.channelplay.mobile.config_Helper.MatArena;
 import com.test.channelplay.mobile.config_Helper.MobileTestFlowScreenshotManager;
+import com.test.channelplay.mobile.config_Helper.OCRWordCache;
+import com.test.channelplay.mobile.config_Helper.PageSourceSnapshot;
+import com.test.channelplay.mobile.config_Helper.ScreenshotProvider;
 import com.test.channelplay.mobile.config_Helper.TemplateConfig;
+import com.test.channelplay.mobile.config_Helper.TemplateMatCache;
+import com.test.channelplay.mobile.config_Helper.TemplateMetadataRegistry;
+import com.test.channelplay.mobile.config_Helper.TesseractPool;
+import com.test.channelplay.mobile.config_Helper.UiSettleDetector;
 import com.test.channelplay.mobile.config_Helper.DebugMatchesViewerGenerator;
 import com.test.channelplay.utils.MobileTestBase;
 import com.test.channelplay.utils.MobileDriverManager;
@@ -67,6 +76,7 @@ public class Hooks_Mobile extends MobileTestBase {
 
             // Set current scenario for debug image organization
             AIElementFinder.setCurrentScenario(scenario.getName());
+            MatArena.beginScenario(scenario.getName());
             log.info("Debug scenario tracking set to: {}", scenario.getName());
 
             // Initialize test flow screenshot manager
@@ -106,6 +116,24 @@ public class Hooks_Mobile extends MobileTestBase {
         // Clean up test flow tracking
         MobileTestFlowScreenshotManager.cleanupScenario(scenario.getName());
 
+        // Write batched template usage stats for this scenario
+        TemplateMetadataRegistry.flush();
+        TemplateMetadataRegistry.logStats();
+
+        // Report OCR/template cache effectiveness and engine pool pressure for this run so far
+        OCRWordCache.logStats();
+        TesseractPool.logStats();
+        TemplateMatCache.logStats();
+        ScreenshotProvider.logStats();
+        PageSourceSnapshot.logStats();
+        UiSettleDetector.logStats();
+
+        // Report OpenCV Mats from this scenario still holding native memory (when leak detection is enabled)
+        MatArena.reportScenario(scenario.getName());
+
+        // Finish writing queued debug images so every match is in the run index before the viewer reads it
+        DebugImageWriter.close();
+
         // Auto-generate debug viewer if configured
         if (TemplateConfig.isDebugModeEnabled() && TemplateConfig.isDebugViewerAutoGenerate()) {
             try {